@@ -0,0 +1,100 @@
+package com.paymentsense.connecte.benchmark;
+
+import com.paymentsense.connecte.model.Address;
+import com.paymentsense.connecte.model.COFSetup;
+import com.paymentsense.connecte.model.PaymentToken;
+import com.paymentsense.connecte.model.ShippingDetails;
+import com.paymentsense.connecte.model.enums.COFType;
+import com.paymentsense.connecte.model.enums.CurrencyCode;
+import com.paymentsense.connecte.model.enums.TransactionType;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Shared benchmark inputs.
+ */
+public final class Fixtures {
+    /**
+     * A realistic PaymentInfo response body
+     */
+    public static final String PAYMENT_INFO_JSON = "{"
+            + "\"transactionDateTime\":\"2024-05-01T10:15:30Z\","
+            + "\"statusCode\":0,"
+            + "\"message\":\"Payment successful\","
+            + "\"crossReference\":\"240501101530ABCDEF123456\","
+            + "\"authCode\":\"123456\","
+            + "\"cardNumber\":\"************1234\","
+            + "\"expiryDate\":\"12/27\","
+            + "\"cardType\":\"VISA\","
+            + "\"cardName\":\"Jane Doe\","
+            + "\"billingAddress\":{\"address1\":\"1 High Street\",\"address2\":\"Flat 2\","
+            + "\"city\":\"London\",\"postcode\":\"EC1A 1AA\",\"countryCode\":\"GB\"},"
+            + "\"shippingDetails\":{\"Name\":\"Jane Doe\",\"Address\":{\"address1\":\"1 High Street\","
+            + "\"city\":\"London\",\"postcode\":\"EC1A 1AA\",\"countryCode\":\"GB\"}},"
+            + "\"userEmailAddress\":\"jane@example.com\""
+            + "}";
+
+    /**
+     * UTF-8 bytes of {@link #PAYMENT_INFO_JSON}
+     */
+    public static final byte[] PAYMENT_INFO_BYTES = PAYMENT_INFO_JSON.getBytes(StandardCharsets.UTF_8);
+
+    private Fixtures() {
+    }
+
+    /**
+     * Build a payment token with every nested structure populated.
+     *
+     * @return a fully populated payment token
+     */
+    public static PaymentToken fullPaymentToken() {
+        Map<String, String> metaData = new LinkedHashMap<>();
+        metaData.put("channel", "web");
+        metaData.put("basketId", "BASKET-98765");
+        metaData.put("campaign", "spring-sale");
+
+        Address address = Address.builder()
+                .address1("1 High Street")
+                .address2("Flat 2")
+                .city("London")
+                .state("Greater London")
+                .postcode("EC1A 1AA")
+                .countryCode("GB")
+                .build();
+
+        return PaymentToken.builder()
+                .amount("1999")
+                .currency(CurrencyCode.GBP)
+                .transactionType(TransactionType.SALE)
+                .orderId("ORDER-12345")
+                .orderDescription("Two widgets")
+                .userEmailAddress("jane@example.com")
+                .userPhoneNumber("+447700900123")
+                .userIpAddress("203.0.113.10")
+                .userAgent("Mozilla/5.0 (X11; Linux x86_64)")
+                .merchantUrl("https://shop.example.com")
+                .merchantTransactionId("MTX-0001")
+                .customerId("CUST-42")
+                .webhookUrl("https://shop.example.com/webhooks/connect-e")
+                .userAddress1("1 High Street")
+                .userCity("London")
+                .userPostcode("EC1A 1AA")
+                .userCountryCode("GB")
+                .metaData(metaData)
+                .cofSetup(COFSetup.builder()
+                        .intendedAmount("1999")
+                        .intendedExecutionDate(LocalDateTime.of(2025, 1, 1, 0, 0))
+                        .expiryDate(LocalDateTime.of(2026, 1, 1, 0, 0))
+                        .type(COFType.RECURRING)
+                        .terms("Monthly subscription")
+                        .build())
+                .shippingDetails(ShippingDetails.builder()
+                        .name("Jane Doe")
+                        .address(address)
+                        .build())
+                .build();
+    }
+}
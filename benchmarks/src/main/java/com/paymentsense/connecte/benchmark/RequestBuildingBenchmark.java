@@ -0,0 +1,87 @@
+package com.paymentsense.connecte.benchmark;
+
+import com.paymentsense.connecte.config.ClientConfig;
+import com.paymentsense.connecte.config.Environment;
+import com.paymentsense.connecte.service.Endpoint;
+import com.paymentsense.connecte.service.PaymentService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Request construction from the per-endpoint templates against the original
+ * per-call {@link HttpRequest.Builder} assembly.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RequestBuildingBenchmark {
+    private static final String PAYMENT_ID = "tok_0123456789abcdef";
+
+    private ClientConfig config;
+    private PaymentService service;
+    private byte[] body;
+
+    @Setup
+    public void setUp() {
+        config = ClientConfig.builder()
+                .apiKey("bench-api-key")
+                .environment(Environment.TEST)
+                .sandbox(true)
+                .userIpAddress("203.0.113.10")
+                .build();
+        service = new PaymentService(config);
+        body = "{\"crossReference\":\"240501101530ABCDEF123456\"}".getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public HttpRequest templateGet() {
+        return service.buildGetRequest(Endpoint.PAYMENTS, PAYMENT_ID);
+    }
+
+    @Benchmark
+    public HttpRequest templatePost() {
+        return service.buildPostRequest(Endpoint.CROSS_REFERENCE_PAYMENTS, PAYMENT_ID, body);
+    }
+
+    @Benchmark
+    public HttpRequest legacyGet() {
+        return legacyBuilder(config.getApiUrl() + "/payments/" + PAYMENT_ID).GET().build();
+    }
+
+    @Benchmark
+    public HttpRequest legacyPost() {
+        return legacyBuilder(config.getApiUrl() + "/cross-reference-payments/" + PAYMENT_ID)
+                .POST(HttpRequest.BodyPublishers.ofString(new String(body, StandardCharsets.UTF_8)))
+                .build();
+    }
+
+    private HttpRequest.Builder legacyBuilder(String url) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder()
+                .uri(URI.create(url))
+                .header("Authorization", "Bearer " + config.getApiKey())
+                .header("Content-Type", "application/json");
+        if (config.isSandbox()) {
+            builder.headers("IS-SANDBOX", "true");
+        }
+        if (config.getUserIpAddress() != null) {
+            builder.headers("X-Forwarded-For", config.getUserIpAddress());
+        }
+        return builder.timeout(config.getTimeout());
+    }
+}
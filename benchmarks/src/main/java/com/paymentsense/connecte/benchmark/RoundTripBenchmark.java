@@ -0,0 +1,84 @@
+package com.paymentsense.connecte.benchmark;
+
+import com.paymentsense.connecte.PaymentsenseClient;
+import com.paymentsense.connecte.exception.PaymentsenseException;
+import com.paymentsense.connecte.model.PaymentInfo;
+import com.paymentsense.connecte.model.PaymentToken;
+import com.paymentsense.connecte.model.PaymentTokenResponse;
+import com.paymentsense.connecte.resilience.RetryPolicy;
+import com.paymentsense.connecte.testing.ConnectEStubServer;
+import com.paymentsense.connecte.testing.StubServerConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full client round trips (serialize, send, receive, deserialize) against the
+ * SDK's loopback {@link ConnectEStubServer} with no latency or faults injected.
+ * <p>
+ * Retries, caching and coalescing are switched off so each operation is
+ * exactly one HTTP exchange.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+@Threads(4)
+public class RoundTripBenchmark {
+    private ConnectEStubServer stub;
+    private PaymentsenseClient client;
+    private PaymentToken token;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        stub = ConnectEStubServer.start(StubServerConfig.builder().tcpNoDelay(true).build());
+
+        client = PaymentsenseClient.builder()
+                .apiKey("bench-api-key")
+                .baseUrl(stub.getBaseUrl())
+                .merchantUrl("https://shop.example.com")
+                .httpVersion(HttpClient.Version.HTTP_1_1)
+                .retryPolicy(RetryPolicy.disabled())
+                .requestCoalescing(false)
+                .build();
+        token = Fixtures.fullPaymentToken();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        client.close();
+        stub.close();
+    }
+
+    @Benchmark
+    public PaymentTokenResponse createPaymentToken() throws PaymentsenseException {
+        return client.createPaymentToken(token);
+    }
+
+    @Benchmark
+    public PaymentInfo getPaymentInfo() throws PaymentsenseException {
+        return client.getPaymentInfo("tok_0123456789abcdef");
+    }
+
+    @Benchmark
+    public PaymentInfo getPaymentInfoAsync() {
+        return client.getPaymentInfoAsync("tok_0123456789abcdef").join();
+    }
+}
@@ -0,0 +1,82 @@
+package com.paymentsense.connecte.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.paymentsense.connecte.model.PaymentInfo;
+import com.paymentsense.connecte.model.PaymentToken;
+import com.paymentsense.connecte.service.JsonCodec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON encoding of a fully populated {@link PaymentToken} and decoding of a
+ * {@link PaymentInfo} body.
+ * <p>
+ * {@code mapper*} is the pre-SDK-codec baseline (a plain {@link ObjectMapper}
+ * resolving the type on every call), {@code codec*} uses the pre-bound
+ * readers/writers of {@link JsonCodec}, and {@code blackbird*} is the same
+ * codec with the Blackbird module registered.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+    private ObjectMapper mapper;
+    private JsonCodec codec;
+    private JsonCodec blackbirdCodec;
+    private PaymentToken token;
+
+    @Setup
+    public void setUp() {
+        mapper = new ObjectMapper();
+        mapper.registerModule(new JavaTimeModule());
+        codec = new JsonCodec();
+        blackbirdCodec = new JsonCodec(true);
+        token = Fixtures.fullPaymentToken();
+    }
+
+    @Benchmark
+    public byte[] mapperSerializeToken() throws IOException {
+        return mapper.writeValueAsBytes(token);
+    }
+
+    @Benchmark
+    public byte[] codecSerializeToken() throws IOException {
+        return codec.getPaymentTokenWriter().writeValueAsBytes(token);
+    }
+
+    @Benchmark
+    public byte[] blackbirdSerializeToken() throws IOException {
+        return blackbirdCodec.getPaymentTokenWriter().writeValueAsBytes(token);
+    }
+
+    @Benchmark
+    public PaymentInfo mapperDeserializeInfoFromString() throws IOException {
+        return mapper.readValue(Fixtures.PAYMENT_INFO_JSON, PaymentInfo.class);
+    }
+
+    @Benchmark
+    public PaymentInfo codecDeserializeInfo() throws IOException {
+        return codec.getPaymentInfoReader().readValue(Fixtures.PAYMENT_INFO_BYTES);
+    }
+
+    @Benchmark
+    public PaymentInfo blackbirdDeserializeInfo() throws IOException {
+        return blackbirdCodec.getPaymentInfoReader().readValue(Fixtures.PAYMENT_INFO_BYTES);
+    }
+}
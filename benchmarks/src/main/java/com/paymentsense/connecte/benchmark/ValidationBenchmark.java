@@ -0,0 +1,52 @@
+package com.paymentsense.connecte.benchmark;
+
+import com.paymentsense.connecte.model.PaymentToken;
+import com.paymentsense.connecte.validation.PaymentTokenValidator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link PaymentTokenValidator} against the original {@code String.matches}
+ * based checks it replaced.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ValidationBenchmark {
+    private PaymentTokenValidator validator;
+    private PaymentToken token;
+
+    @Setup
+    public void setUp() {
+        validator = PaymentTokenValidator.getInstance();
+        token = Fixtures.fullPaymentToken();
+    }
+
+    @Benchmark
+    public List<String> validator() {
+        return validator.validate(token);
+    }
+
+    @Benchmark
+    public boolean regexBaseline() {
+        return token.getMerchantUrl() != null && !token.getMerchantUrl().isEmpty()
+                && token.getCurrencyCode() != null && token.getCurrencyCode().matches("^\\d{3}$")
+                && token.getAmount() != null && token.getAmount().matches("^\\d+$")
+                && token.getTransactionType() != null
+                && token.getOrderId() != null && !token.getOrderId().isEmpty();
+    }
+}
@@ -0,0 +1,129 @@
+package com.paymentsense.connecte.benchmark;
+
+import com.paymentsense.connecte.PaymentsenseClient;
+import com.paymentsense.connecte.config.ExecutionMode;
+import com.paymentsense.connecte.config.VirtualThreads;
+import com.paymentsense.connecte.resilience.CircuitBreakerConfig;
+import com.paymentsense.connecte.resilience.RetryPolicy;
+import com.paymentsense.connecte.testing.ConnectEStubServer;
+import com.paymentsense.connecte.testing.LatencyDistribution;
+import com.paymentsense.connecte.testing.StubServerConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Blocking {@code getPaymentInfo} calls at high concurrency: one caller thread per call,
+ * platform threads against virtual threads, against a stub with fixed latency.
+ * <p>
+ * Each operation issues {@code concurrency} simultaneous calls and waits for all of them.
+ * The {@code VIRTUAL} mode needs Java 21+. Every call holds its own loopback
+ * connection, so the process needs about two file descriptors per concurrent call
+ * ({@code ulimit -n} above 20000 for the default 10000).
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xss256k"})
+public class VirtualThreadBenchmark {
+    @Param({"PLATFORM", "VIRTUAL"})
+    public ExecutionMode mode;
+
+    @Param({"10000"})
+    public int concurrency;
+
+    @Param({"50"})
+    public int latencyMillis;
+
+    private ConnectEStubServer stub;
+    private PaymentsenseClient client;
+    private ExecutorService callers;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        if (!mode.isAvailable()) {
+            throw new IllegalStateException(mode + " requires Java 21 or later");
+        }
+        stub = ConnectEStubServer.start(StubServerConfig.builder()
+                .latency(LatencyDistribution.fixed(Duration.ofMillis(latencyMillis)))
+                .workerThreads(32)
+                .backlog(concurrency)
+                .tcpNoDelay(true)
+                .build());
+        client = PaymentsenseClient.builder()
+                .apiKey("bench-api-key")
+                .baseUrl(stub.getBaseUrl())
+                .httpVersion(HttpClient.Version.HTTP_1_1)
+                .timeout(Duration.ofMinutes(1))
+                .executionMode(mode)
+                .retryPolicy(RetryPolicy.disabled())
+                .circuitBreaker(CircuitBreakerConfig.disabled())
+                .requestCoalescing(false)
+                .build();
+
+        if (mode == ExecutionMode.VIRTUAL) {
+            callers = VirtualThreads.newThreadPerTaskExecutor("bench-caller-");
+        } else {
+            ThreadPoolExecutor pool = (ThreadPoolExecutor) Executors.newFixedThreadPool(concurrency);
+            pool.prestartAllCoreThreads();
+            callers = pool;
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        callers.shutdownNow();
+        client.close();
+        stub.close();
+    }
+
+    @Benchmark
+    public int concurrentGetPaymentInfo() throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(concurrency);
+        AtomicInteger failures = new AtomicInteger();
+        AtomicReference<Exception> firstFailure = new AtomicReference<>();
+        for (int i = 0; i < concurrency; i++) {
+            String paymentId = "pay_" + i;
+            callers.execute(() -> {
+                try {
+                    client.getPaymentInfo(paymentId);
+                } catch (Exception e) {
+                    failures.incrementAndGet();
+                    firstFailure.compareAndSet(null, e);
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+        if (failures.get() > 0) {
+            throw new IllegalStateException(failures.get() + " of " + concurrency + " calls failed",
+                    firstFailure.get());
+        }
+        return concurrency;
+    }
+}
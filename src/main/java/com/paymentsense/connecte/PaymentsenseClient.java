@@ -1,13 +1,48 @@
 package com.paymentsense.connecte;
 
+import com.paymentsense.connecte.batch.BatchExecutor;
+import com.paymentsense.connecte.batch.BatchResult;
+import com.paymentsense.connecte.cache.CacheStats;
+import com.paymentsense.connecte.cache.PaymentInfoCacheConfig;
 import com.paymentsense.connecte.config.ClientConfig;
 import com.paymentsense.connecte.config.Environment;
+import com.paymentsense.connecte.config.ExecutionMode;
+import com.paymentsense.connecte.credentials.CredentialProvider;
 import com.paymentsense.connecte.exception.PaymentsenseException;
+import com.paymentsense.connecte.idempotency.IdempotencyConfig;
+import com.paymentsense.connecte.interceptor.Interceptor;
+import com.paymentsense.connecte.journal.CrossReferenceJournal;
+import com.paymentsense.connecte.journal.JournalEntry;
+import com.paymentsense.connecte.journal.RecoveredOperation;
+import com.paymentsense.connecte.metrics.MetricsListener;
+import com.paymentsense.connecte.polling.PaymentPoller;
+import com.paymentsense.connecte.polling.PollingConfig;
 import com.paymentsense.connecte.model.*;
+import com.paymentsense.connecte.resilience.CircuitBreaker;
+import com.paymentsense.connecte.resilience.CircuitBreakerConfig;
+import com.paymentsense.connecte.resilience.HedgingConfig;
+import com.paymentsense.connecte.resilience.HedgingStats;
+import com.paymentsense.connecte.resilience.RateLimitConfig;
+import com.paymentsense.connecte.resilience.RetryPolicy;
+import com.paymentsense.connecte.resilience.RetryStats;
+import com.paymentsense.connecte.service.Endpoint;
 import com.paymentsense.connecte.service.PaymentService;
 import lombok.Getter;
 
+import java.net.ProxySelector;
+import java.net.http.HttpClient;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
 
 /**
  * Main client for interacting with Paymentsense Connect-E API.
@@ -31,11 +66,26 @@ import java.time.Duration;
  *
  * PaymentTokenResponse response = client.createPaymentToken(token);
  * }</pre>
+ *
+ * <p>
+ * Every operation also has an {@code ...Async} variant returning a {@link CompletableFuture}.
+ * These never block the calling thread; failures complete the future exceptionally with a
+ * {@link PaymentsenseException}, and cancelling the future cancels the HTTP exchange.
+ * </p>
+ *
+ * <p>
+ * A client is meant to be long-lived and shared. Close it when the application no longer
+ * needs it, to stop the polling thread and any executor the client created.
+ * </p>
  */
-public class PaymentsenseClient {
+public class PaymentsenseClient implements AutoCloseable {
     @Getter
     private final ClientConfig config;
     private final PaymentService paymentService;
+    private final PaymentPoller sharedPoller;
+    private final ReentrantLock pollerLock = new ReentrantLock();
+    private volatile PaymentPoller poller;
+    private volatile boolean closed;
 
     /**
      * Create a new client with the given configuration.
@@ -46,6 +96,22 @@ public class PaymentsenseClient {
         config.validate();
         this.config = config;
         this.paymentService = new PaymentService(config);
+        this.sharedPoller = null;
+    }
+
+    /**
+     * Create a client on an existing service, e.g. one sharing its transport with other clients.
+     *
+     * @param config         the validated client configuration
+     * @param paymentService the service to send requests through
+     * @param sharedPoller   a poller shared with other clients, which this client does not
+     *                       close, or {@code null} to create its own on first use
+     */
+    PaymentsenseClient(ClientConfig config, PaymentService paymentService, PaymentPoller sharedPoller) {
+        this.config = config;
+        this.paymentService = paymentService;
+        this.sharedPoller = sharedPoller;
+        this.poller = sharedPoller;
     }
 
     /**
@@ -63,6 +129,65 @@ public class PaymentsenseClient {
         return paymentService.createPaymentToken(paymentToken);
     }
 
+    /**
+     * Create a payment token without blocking the calling thread.
+     *
+     * @param paymentToken the payment token request
+     * @return a future completing with the payment token response
+     * @see #createPaymentToken(PaymentToken)
+     */
+    public CompletableFuture<PaymentTokenResponse> createPaymentTokenAsync(PaymentToken paymentToken) {
+        return paymentService.createPaymentTokenAsync(paymentToken);
+    }
+
+    /**
+     * Create many payment tokens with bounded concurrency.
+     * <p>
+     * At most {@code maxConcurrency} requests are in flight at once over the shared
+     * HttpClient. A failing item (e.g. a {@code ValidationException} or {@code ApiException})
+     * is reported in its own result and does not abort the batch.
+     * </p>
+     *
+     * @param paymentTokens  the payment token requests
+     * @param maxConcurrency the maximum number of requests in flight at once
+     * @return per-item results in input order, with batch throughput and latency
+     */
+    public BatchResult<PaymentTokenResponse> createPaymentTokens(Collection<PaymentToken> paymentTokens,
+                                                                 int maxConcurrency) {
+        return createPaymentTokensAsync(paymentTokens.stream(), maxConcurrency).join();
+    }
+
+    /**
+     * Create payment tokens from a stream with bounded concurrency.
+     * <p>
+     * The stream is consumed lazily as request slots become free.
+     * </p>
+     *
+     * @param paymentTokens  the payment token requests
+     * @param maxConcurrency the maximum number of requests in flight at once
+     * @return per-item results in input order, with batch throughput and latency
+     * @see #createPaymentTokens(Collection, int)
+     */
+    public BatchResult<PaymentTokenResponse> createPaymentTokens(Stream<PaymentToken> paymentTokens,
+                                                                 int maxConcurrency) {
+        return createPaymentTokensAsync(paymentTokens, maxConcurrency).join();
+    }
+
+    /**
+     * Create payment tokens from a stream with bounded concurrency, without blocking
+     * the calling thread.
+     *
+     * @param paymentTokens  the payment token requests
+     * @param maxConcurrency the maximum number of requests in flight at once
+     * @return a future completing with per-item results once every item has finished
+     * @see #createPaymentTokens(Collection, int)
+     */
+    public CompletableFuture<BatchResult<PaymentTokenResponse>> createPaymentTokensAsync(
+            Stream<PaymentToken> paymentTokens,
+            int maxConcurrency) {
+        return BatchExecutor.execute(paymentTokens.iterator(), maxConcurrency, paymentService::createPaymentTokenAsync);
+    }
+
     /**
      * Get payment information by payment ID.
      * <p>
@@ -78,6 +203,17 @@ public class PaymentsenseClient {
         return paymentService.getPaymentInfo(paymentId);
     }
 
+    /**
+     * Get payment information by payment ID without blocking the calling thread.
+     *
+     * @param paymentId the payment ID (same as payment token ID)
+     * @return a future completing with the payment information
+     * @see #getPaymentInfo(String)
+     */
+    public CompletableFuture<PaymentInfo> getPaymentInfoAsync(String paymentId) {
+        return paymentService.getPaymentInfoAsync(paymentId);
+    }
+
     /**
      * Execute a cross-reference payment operation (refund, void, or collection).
      * <p>
@@ -96,6 +232,20 @@ public class PaymentsenseClient {
         return paymentService.executeCrossReferencePayment(paymentToken, request);
     }
 
+    /**
+     * Execute a cross-reference payment operation without blocking the calling thread.
+     *
+     * @param paymentToken the original payment token ID
+     * @param request      the cross-reference payment request
+     * @return a future completing with the cross-reference payment response
+     * @see #executeCrossReferencePayment(String, CrossReferencePaymentRequest)
+     */
+    public CompletableFuture<CrossReferencePaymentResponse> executeCrossReferencePaymentAsync(
+            String paymentToken,
+            CrossReferencePaymentRequest request) {
+        return paymentService.executeCrossReferencePaymentAsync(paymentToken, request);
+    }
+
     /**
      * Refund a payment.
      * <p>
@@ -115,6 +265,243 @@ public class PaymentsenseClient {
         return executeCrossReferencePayment(paymentToken, request);
     }
 
+    /**
+     * Refund a payment without blocking the calling thread.
+     *
+     * @param paymentToken    the original payment token ID
+     * @param crossReference  the cross-reference ID from the payment
+     * @return a future completing with the refund response
+     * @see #refundPayment(String, String)
+     */
+    public CompletableFuture<CrossReferencePaymentResponse> refundPaymentAsync(String paymentToken,
+                                                                               String crossReference) {
+        CrossReferencePaymentRequest request = CrossReferencePaymentRequest.builder()
+            .crossReference(crossReference)
+            .build();
+        return executeCrossReferencePaymentAsync(paymentToken, request);
+    }
+
+    /**
+     * Get the journaled cross-reference operations whose outcome is unknown, e.g. after a
+     * crash. Requires a journal to be configured.
+     *
+     * @return the in-doubt operations, oldest first
+     * @throws IllegalStateException if no journal is configured
+     */
+    public List<JournalEntry> getInDoubtCrossReferencePayments() {
+        return paymentService.getInDoubtCrossReferencePayments();
+    }
+
+    /**
+     * Settle the journaled cross-reference operations whose outcome is unknown.
+     * <p>
+     * Each operation's payment is looked up with {@code getPaymentInfo}. If the payment is
+     * final, the operation is marked resolved. If the payment shows no status at all,
+     * the operation never ran; with {@code replay} it is sent again (without a CV2, which
+     * is never journaled), otherwise it is left in doubt.
+     * </p>
+     *
+     * @param replay whether to resend operations that never ran
+     * @return what happened to each in-doubt operation
+     * @throws IllegalStateException if no journal is configured
+     */
+    public List<RecoveredOperation> recoverCrossReferencePayments(boolean replay) {
+        return paymentService.recoverCrossReferencePayments(replay);
+    }
+
+    /**
+     * Get the number of {@code createPaymentToken} calls answered with an existing token,
+     * either remembered or shared with a concurrent identical call.
+     *
+     * @return the number of reused tokens
+     */
+    public long getReusedPaymentTokenCount() {
+        return paymentService.getReusedPaymentTokenCount();
+    }
+
+    /**
+     * Get the number of calls currently in flight, when a concurrency limit is configured.
+     *
+     * @return the in-flight call count, or -1 if calls are not limited
+     * @see ClientConfig#getMaxConcurrentRequests()
+     */
+    public int getInFlightRequestCount() {
+        return paymentService.getInFlightRequestCount();
+    }
+
+    /**
+     * Get a snapshot of the hedging counters.
+     *
+     * @return hedges sent and won and the current hedge delay, or {@code null} if
+     *         hedging is disabled
+     */
+    public HedgingStats getHedgingStats() {
+        return paymentService.getHedgingStats();
+    }
+
+    /**
+     * Get a snapshot of the retry counters.
+     *
+     * @return the attempts, retries and retry budget exhaustion counts
+     */
+    public RetryStats getRetryStats() {
+        return paymentService.getRetryStats();
+    }
+
+    /**
+     * Poll a payment until it reaches a final state, e.g. after the Connect-E frontend
+     * has taken the payment.
+     * <p>
+     * All polled payments share one timer thread; no thread waits per payment. The
+     * interval grows per payment as configured in {@link PollingConfig}, and polling
+     * stops after the default timeout.
+     * </p>
+     *
+     * @param paymentId the payment ID (payment token ID)
+     * @return a future completing with the final payment information, or exceptionally
+     *         with a {@code PollingTimeoutException} or the {@link PaymentsenseException}
+     *         that ended polling; cancelling it stops polling
+     * @throws IllegalStateException if the client is closed
+     */
+    public CompletableFuture<PaymentInfo> pollPaymentInfo(String paymentId) {
+        return pollPaymentInfo(paymentId, config.getPolling().getDefaultTimeout());
+    }
+
+    /**
+     * Poll a payment until it reaches a final state or the timeout passes.
+     *
+     * @param paymentId the payment ID (payment token ID)
+     * @param timeout   how long to keep polling
+     * @return a future completing with the final payment information, or exceptionally
+     *         with a {@code PollingTimeoutException} or the {@link PaymentsenseException}
+     *         that ended polling; cancelling it stops polling
+     * @throws IllegalStateException if the client is closed
+     */
+    public CompletableFuture<PaymentInfo> pollPaymentInfo(String paymentId, Duration timeout) {
+        PaymentPoller current = poller();
+        if (current == sharedPoller) {
+            return current.poll(paymentId, timeout, this::refreshForSharedPoller);
+        }
+        return current.poll(paymentId, timeout);
+    }
+
+    /**
+     * Get the number of payments waiting for their next status poll. For a client of a
+     * {@link TenantRegistry} this counts the polls of every tenant.
+     *
+     * @return the number of scheduled polls
+     */
+    public int getPendingPollCount() {
+        PaymentPoller current = poller;
+        return current == null ? 0 : current.getPendingCount();
+    }
+
+    private PaymentPoller poller() {
+        if (closed) {
+            throw new IllegalStateException("Client is closed");
+        }
+        PaymentPoller current = poller;
+        if (current == null) {
+            pollerLock.lock();
+            try {
+                if (closed) {
+                    throw new IllegalStateException("Client is closed");
+                }
+                current = poller;
+                if (current == null) {
+                    current = new PaymentPoller(config.getPolling(), paymentService::refreshPaymentInfoAsync);
+                    poller = current;
+                }
+            } finally {
+                pollerLock.unlock();
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Fetch a payment for the shared poller, which outlives this client; once the client
+     * is closed its remaining polls end on their next tick.
+     */
+    private CompletableFuture<PaymentInfo> refreshForSharedPoller(String paymentId) {
+        if (closed) {
+            return CompletableFuture.failedFuture(new CancellationException("Client is closed"));
+        }
+        return paymentService.refreshPaymentInfoAsync(paymentId);
+    }
+
+    /**
+     * Remove a payment from the payment information cache.
+     * <p>
+     * Cross-reference operations invalidate their payment automatically; use this after
+     * changes the client cannot see, such as a webhook notification.
+     * </p>
+     *
+     * @param paymentId the payment ID
+     */
+    public void invalidatePaymentInfo(String paymentId) {
+        paymentService.invalidatePaymentInfo(paymentId);
+    }
+
+    /**
+     * Get a snapshot of the payment information cache counters.
+     *
+     * @return hit, miss and eviction counts, or {@code null} if caching is disabled
+     */
+    public CacheStats getPaymentInfoCacheStats() {
+        return paymentService.getPaymentInfoCacheStats();
+    }
+
+    /**
+     * Get the number of payment lookups that shared another caller's in-flight request
+     * instead of making their own.
+     *
+     * @return the number of deduplicated lookups
+     */
+    public long getCoalescedRequestCount() {
+        return paymentService.getCoalescedRequestCount();
+    }
+
+    /**
+     * Get the current circuit breaker state of an endpoint.
+     *
+     * @param endpoint the endpoint
+     * @return CLOSED, OPEN or HALF_OPEN
+     */
+    public CircuitBreaker.State getCircuitBreakerState(Endpoint endpoint) {
+        return paymentService.getCircuitBreakerState(endpoint);
+    }
+
+    /**
+     * Close the client: stop the polling thread, cancelling outstanding polls, and shut
+     * down the executor the client created for its HTTP transport, if any. A client of a
+     * {@link TenantRegistry} leaves the shared poller and transport running; its own
+     * polls end on their next tick.
+     * <p>
+     * Requests already in flight are left to complete. Resources supplied through the
+     * configuration, such as an executor, credential provider, journal or idempotency
+     * store, are not closed. Closing twice has no further effect.
+     * </p>
+     */
+    @Override
+    public void close() {
+        PaymentPoller current;
+        pollerLock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            current = poller;
+        } finally {
+            pollerLock.unlock();
+        }
+        if (current != null && current != sharedPoller) {
+            current.close();
+        }
+        paymentService.close();
+    }
+
     /**
      * Create a new client builder.
      *
@@ -130,6 +517,7 @@ public class PaymentsenseClient {
     public static class Builder {
         private String apiKey;
         private Environment environment = Environment.TEST;
+        private String baseUrl;
         private Duration timeout = Duration.ofSeconds(30);
         private boolean sandbox = false;
         private String gatewayUsername;
@@ -137,6 +525,27 @@ public class PaymentsenseClient {
         private String merchantUrl;
         private String webhookUrl;
         private String userIpAddress;
+        private HttpClient.Version httpVersion = HttpClient.Version.HTTP_2;
+        private Duration connectTimeout = Duration.ofSeconds(10);
+        private Executor executor;
+        private Integer connectionPoolSize;
+        private Duration keepAliveTimeout;
+        private ProxySelector proxy;
+        private boolean blackbird = false;
+        private RetryPolicy retryPolicy = RetryPolicy.builder().build();
+        private CircuitBreakerConfig circuitBreaker = CircuitBreakerConfig.builder().build();
+        private final Map<Endpoint, RateLimitConfig> rateLimits = new EnumMap<>(Endpoint.class);
+        private PaymentInfoCacheConfig paymentInfoCache = PaymentInfoCacheConfig.disabled();
+        private boolean requestCoalescing = true;
+        private MetricsListener metricsListener = MetricsListener.NOOP;
+        private final List<Interceptor> interceptors = new ArrayList<>();
+        private ExecutionMode executionMode = ExecutionMode.PLATFORM;
+        private PollingConfig polling = PollingConfig.builder().build();
+        private CrossReferenceJournal journal;
+        private IdempotencyConfig idempotency = IdempotencyConfig.disabled();
+        private Integer maxConcurrentRequests;
+        private CredentialProvider credentialProvider;
+        private HedgingConfig hedging = HedgingConfig.disabled();
 
         /**
          * Set the API key (JWT token).
@@ -160,6 +569,18 @@ public class PaymentsenseClient {
             return this;
         }
 
+        /**
+         * Point the client at a custom API base URL instead of the environment's,
+         * e.g. a local stub server.
+         *
+         * @param baseUrl the base URL including the version path, e.g. {@code http://localhost:8080/v1}
+         * @return this builder
+         */
+        public Builder baseUrl(String baseUrl) {
+            this.baseUrl = baseUrl;
+            return this;
+        }
+
         /**
          * Set the HTTP request timeout.
          *
@@ -237,6 +658,251 @@ public class PaymentsenseClient {
             return this;
         }
 
+        /**
+         * Set the preferred HTTP protocol version (default HTTP/2).
+         *
+         * @param httpVersion the HTTP version
+         * @return this builder
+         */
+        public Builder httpVersion(HttpClient.Version httpVersion) {
+            this.httpVersion = httpVersion;
+            return this;
+        }
+
+        /**
+         * Set the connection establishment timeout (default 10 seconds).
+         *
+         * @param connectTimeout the connect timeout
+         * @return this builder
+         */
+        public Builder connectTimeout(Duration connectTimeout) {
+            this.connectTimeout = connectTimeout;
+            return this;
+        }
+
+        /**
+         * Set the executor used for asynchronous tasks and response handling.
+         *
+         * @param executor the executor, ideally bounded
+         * @return this builder
+         */
+        public Builder executor(Executor executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        /**
+         * Set the maximum number of idle connections kept per destination (JVM-wide).
+         *
+         * @param connectionPoolSize the pool size, 0 for unbounded
+         * @return this builder
+         * @see ClientConfig#getConnectionPoolSize()
+         */
+        public Builder connectionPoolSize(int connectionPoolSize) {
+            this.connectionPoolSize = connectionPoolSize;
+            return this;
+        }
+
+        /**
+         * Set how long idle connections are kept alive (JVM-wide).
+         *
+         * @param keepAliveTimeout the keep-alive duration
+         * @return this builder
+         * @see ClientConfig#getKeepAliveTimeout()
+         */
+        public Builder keepAliveTimeout(Duration keepAliveTimeout) {
+            this.keepAliveTimeout = keepAliveTimeout;
+            return this;
+        }
+
+        /**
+         * Set the proxy selector for outbound connections.
+         *
+         * @param proxy the proxy selector
+         * @return this builder
+         */
+        public Builder proxy(ProxySelector proxy) {
+            this.proxy = proxy;
+            return this;
+        }
+
+        /**
+         * Enable Jackson's Blackbird module for faster JSON (de)serialization.
+         * Requires {@code jackson-module-blackbird} on the classpath.
+         *
+         * @param blackbird true to enable Blackbird
+         * @return this builder
+         */
+        public Builder blackbird(boolean blackbird) {
+            this.blackbird = blackbird;
+            return this;
+        }
+
+        /**
+         * Set the retry policy for failed requests.
+         *
+         * @param retryPolicy the retry policy, or {@link RetryPolicy#disabled()}
+         * @return this builder
+         */
+        public Builder retryPolicy(RetryPolicy retryPolicy) {
+            this.retryPolicy = retryPolicy;
+            return this;
+        }
+
+        /**
+         * Set the per-endpoint circuit breaker configuration.
+         *
+         * @param circuitBreaker the circuit breaker configuration, or
+         *                       {@link CircuitBreakerConfig#disabled()}
+         * @return this builder
+         */
+        public Builder circuitBreaker(CircuitBreakerConfig circuitBreaker) {
+            this.circuitBreaker = circuitBreaker;
+            return this;
+        }
+
+        /**
+         * Set a client-side rate limit for an endpoint.
+         *
+         * @param endpoint  the endpoint to limit
+         * @param rateLimit the rate limit configuration
+         * @return this builder
+         */
+        public Builder rateLimit(Endpoint endpoint, RateLimitConfig rateLimit) {
+            this.rateLimits.put(endpoint, rateLimit);
+            return this;
+        }
+
+        /**
+         * Enable and configure the read-through payment information cache.
+         *
+         * @param paymentInfoCache the cache configuration
+         * @return this builder
+         */
+        public Builder paymentInfoCache(PaymentInfoCacheConfig paymentInfoCache) {
+            this.paymentInfoCache = paymentInfoCache;
+            return this;
+        }
+
+        /**
+         * Enable or disable coalescing of concurrent lookups for the same payment
+         * (enabled by default).
+         *
+         * @param requestCoalescing true to share in-flight {@code getPaymentInfo} requests
+         * @return this builder
+         */
+        public Builder requestCoalescing(boolean requestCoalescing) {
+            this.requestCoalescing = requestCoalescing;
+            return this;
+        }
+
+        /**
+         * Set the listener notified of every HTTP exchange, e.g. a
+         * {@code HistogramMetricsListener}.
+         *
+         * @param metricsListener the metrics listener
+         * @return this builder
+         */
+        public Builder metricsListener(MetricsListener metricsListener) {
+            this.metricsListener = metricsListener;
+            return this;
+        }
+
+        /**
+         * Add an interceptor run around every HTTP exchange. Interceptors see requests in
+         * the order they are added and responses in reverse order.
+         *
+         * @param interceptor the interceptor
+         * @return this builder
+         */
+        public Builder interceptor(Interceptor interceptor) {
+            this.interceptors.add(interceptor);
+            return this;
+        }
+
+        /**
+         * Set the kind of threads the HTTP transport runs on (platform threads by default).
+         *
+         * @param executionMode the execution mode; {@code VIRTUAL} requires Java 21
+         * @return this builder
+         */
+        public Builder executionMode(ExecutionMode executionMode) {
+            this.executionMode = executionMode;
+            return this;
+        }
+
+        /**
+         * Set the payment status polling configuration.
+         *
+         * @param polling the polling configuration
+         * @return this builder
+         */
+        public Builder polling(PollingConfig polling) {
+            this.polling = polling;
+            return this;
+        }
+
+        /**
+         * Journal cross-reference operations (refund, void, collection) so that their
+         * outcome can be recovered after a crash.
+         *
+         * @param journal an open journal; the caller remains responsible for closing it
+         * @return this builder
+         */
+        public Builder journal(CrossReferenceJournal journal) {
+            this.journal = journal;
+            return this;
+        }
+
+        /**
+         * Answer repeated {@code createPaymentToken} requests for the same order, amount,
+         * currency and transaction type with the token already created.
+         *
+         * @param idempotency the idempotency configuration
+         * @return this builder
+         */
+        public Builder idempotency(IdempotencyConfig idempotency) {
+            this.idempotency = idempotency;
+            return this;
+        }
+
+        /**
+         * Set the maximum number of calls in flight at once; further calls fail with
+         * {@link com.paymentsense.connecte.exception.ConcurrencyLimitExceededException}.
+         *
+         * @param maxConcurrentRequests the concurrency limit
+         * @return this builder
+         */
+        public Builder maxConcurrentRequests(int maxConcurrentRequests) {
+            this.maxConcurrentRequests = maxConcurrentRequests;
+            return this;
+        }
+
+        /**
+         * Set a provider for the API key and gateway credentials, replacing
+         * {@link #apiKey(String)}, {@link #gatewayUsername(String)} and {@link #gatewayPassword(String)}.
+         *
+         * @param credentialProvider the credential provider
+         * @return this builder
+         * @see com.paymentsense.connecte.credentials.RefreshingCredentialProvider
+         */
+        public Builder credentialProvider(CredentialProvider credentialProvider) {
+            this.credentialProvider = credentialProvider;
+            return this;
+        }
+
+        /**
+         * Configure hedged requests for {@code getPaymentInfo}: a second request is sent
+         * when the first is slow, and the first answer wins.
+         *
+         * @param hedging the hedging configuration
+         * @return this builder
+         */
+        public Builder hedging(HedgingConfig hedging) {
+            this.hedging = hedging;
+            return this;
+        }
+
         /**
          * Build the PaymentsenseClient instance.
          *
@@ -247,6 +913,7 @@ public class PaymentsenseClient {
             ClientConfig config = ClientConfig.builder()
                 .apiKey(apiKey)
                 .environment(environment)
+                .baseUrl(baseUrl)
                 .timeout(timeout)
                 .sandbox(sandbox)
                 .gatewayUsername(gatewayUsername)
@@ -254,6 +921,27 @@ public class PaymentsenseClient {
                 .merchantUrl(merchantUrl)
                 .webhookUrl(webhookUrl)
                 .userIpAddress(userIpAddress)
+                .httpVersion(httpVersion)
+                .connectTimeout(connectTimeout)
+                .executor(executor)
+                .connectionPoolSize(connectionPoolSize)
+                .keepAliveTimeout(keepAliveTimeout)
+                .proxy(proxy)
+                .blackbird(blackbird)
+                .retryPolicy(retryPolicy)
+                .circuitBreaker(circuitBreaker)
+                .rateLimits(new EnumMap<>(rateLimits))
+                .paymentInfoCache(paymentInfoCache)
+                .requestCoalescing(requestCoalescing)
+                .metricsListener(metricsListener)
+                .interceptors(Collections.unmodifiableList(new ArrayList<>(interceptors)))
+                .executionMode(executionMode)
+                .polling(polling)
+                .journal(journal)
+                .idempotency(idempotency)
+                .maxConcurrentRequests(maxConcurrentRequests)
+                .credentialProvider(credentialProvider)
+                .hedging(hedging)
                 .build();
 
             return new PaymentsenseClient(config);
@@ -0,0 +1,188 @@
+package com.paymentsense.connecte;
+
+import com.paymentsense.connecte.config.ClientConfig;
+import com.paymentsense.connecte.config.TenantConfig;
+import com.paymentsense.connecte.polling.PaymentPoller;
+import com.paymentsense.connecte.service.JsonCodec;
+import com.paymentsense.connecte.service.PaymentService;
+
+import java.net.http.HttpClient;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of per-merchant clients that share one HTTP transport.
+ * <p>
+ * Every client in the registry sends through the same {@link HttpClient}, and so shares
+ * its connection pool and selector thread, (de)serializes with the same Jackson codecs
+ * and polls on the same {@link PaymentPoller} timer thread. Credentials, default URLs
+ * and a concurrency limit differ between merchants and come from each
+ * {@link TenantConfig}; everything else comes from the shared {@link ClientConfig}.
+ * Circuit breakers, rate limiters and caches are kept per merchant, so one merchant's
+ * failures or traffic do not trip another's.
+ * </p>
+ * <p>
+ * A client replaced or removed from the registry is closed. Closing the registry closes
+ * every client and stops the shared poller and transport.
+ * </p>
+ *
+ * <pre>{@code
+ * TenantRegistry registry = new TenantRegistry(ClientConfig.builder()
+ *     .environment(Environment.PRODUCTION)
+ *     .maxConcurrentRequests(32)
+ *     .build());
+ *
+ * registry.register(TenantConfig.builder()
+ *     .tenantId("merchant-42")
+ *     .apiKey(merchantJwt)
+ *     .merchantUrl("https://shop.example.com")
+ *     .build());
+ *
+ * PaymentInfo info = registry.get("merchant-42").getPaymentInfo(paymentId);
+ * }</pre>
+ */
+public class TenantRegistry implements AutoCloseable {
+    private final ClientConfig sharedConfig;
+    private final HttpClient httpClient;
+    private final JsonCodec jsonCodec;
+    private final PaymentPoller poller;
+    private final Map<String, PaymentsenseClient> clients = new ConcurrentHashMap<>();
+    private volatile boolean closed;
+
+    /**
+     * Create an empty registry.
+     * <p>
+     * The shared configuration supplies the transport settings and the defaults for
+     * every tenant; its API key, gateway credentials and credential provider, if set, are
+     * ignored. It must not set a journal or a custom idempotency store, since those would
+     * mix the merchants' operations.
+     * </p>
+     *
+     * @param sharedConfig the configuration shared by all tenants
+     * @throws IllegalArgumentException if the configuration is invalid
+     */
+    public TenantRegistry(ClientConfig sharedConfig) {
+        Objects.requireNonNull(sharedConfig, "sharedConfig");
+        if (sharedConfig.getJournal() != null) {
+            throw new IllegalArgumentException("A journal cannot be shared between tenants");
+        }
+        if (sharedConfig.getIdempotency() != null && sharedConfig.getIdempotency().getStore() != null) {
+            throw new IllegalArgumentException("An idempotency store cannot be shared between tenants");
+        }
+        // Check the shared settings now rather than on the first registration
+        sharedConfig.toBuilder().apiKey("shared").credentialProvider(null).build().validate();
+
+        this.sharedConfig = sharedConfig;
+        this.httpClient = PaymentService.buildHttpClient(sharedConfig);
+        this.jsonCodec = new JsonCodec(sharedConfig.isBlackbird());
+        this.poller = new PaymentPoller(sharedConfig.getPolling());
+    }
+
+    /**
+     * Add a tenant, replacing and closing any client already registered under the same ID.
+     *
+     * @param tenant the tenant's settings
+     * @return the tenant's client
+     * @throws IllegalArgumentException if the tenant configuration is invalid
+     * @throws IllegalStateException    if the registry is closed
+     */
+    public PaymentsenseClient register(TenantConfig tenant) {
+        if (closed) {
+            throw new IllegalStateException("Registry is closed");
+        }
+        tenant.validate();
+        ClientConfig.ClientConfigBuilder builder = sharedConfig.toBuilder()
+                .apiKey(tenant.getApiKey())
+                .gatewayUsername(tenant.getGatewayUsername())
+                .gatewayPassword(tenant.getGatewayPassword())
+                .credentialProvider(tenant.getCredentialProvider());
+        if (tenant.getMerchantUrl() != null) {
+            builder.merchantUrl(tenant.getMerchantUrl());
+        }
+        if (tenant.getWebhookUrl() != null) {
+            builder.webhookUrl(tenant.getWebhookUrl());
+        }
+        if (tenant.getMaxConcurrentRequests() != null) {
+            builder.maxConcurrentRequests(tenant.getMaxConcurrentRequests());
+        }
+        ClientConfig config = builder.build();
+        config.validate();
+
+        PaymentsenseClient client =
+                new PaymentsenseClient(config, new PaymentService(config, httpClient, jsonCodec), poller);
+        PaymentsenseClient previous = clients.put(tenant.getTenantId(), client);
+        if (previous != null) {
+            previous.close();
+        }
+        if (closed && clients.remove(tenant.getTenantId(), client)) {
+            // Raced with close(), which may already have passed this tenant
+            client.close();
+            throw new IllegalStateException("Registry is closed");
+        }
+        return client;
+    }
+
+    /**
+     * Look up a tenant's client.
+     *
+     * @param tenantId the tenant ID
+     * @return the client, or {@code null} if no tenant is registered under the ID
+     */
+    public PaymentsenseClient get(String tenantId) {
+        return clients.get(tenantId);
+    }
+
+    /**
+     * Remove a tenant and close its client. Requests already in flight complete; its
+     * outstanding polls end on their next tick.
+     *
+     * @param tenantId the tenant ID
+     * @return the removed client, or {@code null} if no tenant was registered under the ID
+     */
+    public PaymentsenseClient remove(String tenantId) {
+        PaymentsenseClient removed = clients.remove(tenantId);
+        if (removed != null) {
+            removed.close();
+        }
+        return removed;
+    }
+
+    /**
+     * Get the IDs of the registered tenants.
+     *
+     * @return an unmodifiable live view of the tenant IDs
+     */
+    public Set<String> getTenantIds() {
+        return Collections.unmodifiableSet(clients.keySet());
+    }
+
+    /**
+     * Get the number of registered tenants.
+     *
+     * @return the tenant count
+     */
+    public int size() {
+        return clients.size();
+    }
+
+    /**
+     * Close every client, stop the shared poller, cancelling outstanding polls, and shut
+     * down the executor created for the shared transport, if any. Closing twice has no
+     * further effect.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        for (String tenantId : clients.keySet()) {
+            remove(tenantId);
+        }
+        poller.close();
+        PaymentService.closeHttpClient(sharedConfig, httpClient);
+    }
+}
@@ -0,0 +1,154 @@
+package com.paymentsense.connecte.batch;
+
+import com.paymentsense.connecte.exception.PaymentsenseException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Runs an asynchronous operation over a sequence of inputs with bounded concurrency.
+ * <p>
+ * At most {@code maxConcurrency} operations are in flight at once; as each completes the
+ * next input is started. A failing item is recorded in its {@link BatchItemResult} and
+ * does not stop the rest of the batch. Inputs are consumed lazily, so a large stream is
+ * never materialized up front.
+ * </p>
+ *
+ * @param <I> the input type
+ * @param <O> the result type
+ */
+public final class BatchExecutor<I, O> {
+    private final Iterator<? extends I> inputs;
+    private final int maxConcurrency;
+    private final Function<? super I, CompletableFuture<O>> operation;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final List<BatchItemResult<O>> results = new ArrayList<>();
+    private final AtomicInteger wip = new AtomicInteger();
+    private final CompletableFuture<BatchResult<O>> completion = new CompletableFuture<>();
+    private int inFlight;
+    private long startNanos;
+
+    private BatchExecutor(Iterator<? extends I> inputs, int maxConcurrency,
+                          Function<? super I, CompletableFuture<O>> operation) {
+        this.inputs = inputs;
+        this.maxConcurrency = maxConcurrency;
+        this.operation = operation;
+    }
+
+    /**
+     * Run an operation over every input.
+     *
+     * @param inputs         the inputs, consumed lazily
+     * @param maxConcurrency the maximum number of operations in flight at once
+     * @param operation      the asynchronous operation to apply to each input
+     * @param <I>            the input type
+     * @param <O>            the result type
+     * @return a future completing with the results once every item has finished
+     * @throws IllegalArgumentException if maxConcurrency is less than 1
+     */
+    public static <I, O> CompletableFuture<BatchResult<O>> execute(
+            Iterator<? extends I> inputs,
+            int maxConcurrency,
+            Function<? super I, CompletableFuture<O>> operation) {
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("Max concurrency must be at least 1");
+        }
+        BatchExecutor<I, O> executor = new BatchExecutor<>(inputs, maxConcurrency, operation);
+        executor.startNanos = System.nanoTime();
+        executor.drain();
+        return executor.completion;
+    }
+
+    /**
+     * Start items until the concurrency limit is reached or the inputs are exhausted.
+     * <p>
+     * Re-entrant calls from operations that complete synchronously only bump the work
+     * counter, so a long run of immediate failures cannot grow the stack.
+     * </p>
+     */
+    private void drain() {
+        if (wip.getAndIncrement() != 0) {
+            return;
+        }
+        do {
+            BatchResult<O> finished = null;
+            while (true) {
+                I input;
+                int index;
+                lock.lock();
+                try {
+                    if (completion.isDone() || inFlight >= maxConcurrency) {
+                        break;
+                    }
+                    if (!inputs.hasNext()) {
+                        if (inFlight == 0) {
+                            long elapsed = System.nanoTime() - startNanos;
+                            finished = new BatchResult<>(Collections.unmodifiableList(results), elapsed);
+                        }
+                        break;
+                    }
+                    input = inputs.next();
+                    index = results.size();
+                    results.add(null);
+                    inFlight++;
+                } catch (RuntimeException e) {
+                    // The input iterator or stream itself failed
+                    completion.completeExceptionally(e);
+                    break;
+                } finally {
+                    lock.unlock();
+                }
+                start(index, input);
+            }
+            if (finished != null) {
+                completion.complete(finished);
+            }
+        } while (wip.decrementAndGet() != 0);
+    }
+
+    private void start(int index, I input) {
+        long itemStart = System.nanoTime();
+        CompletableFuture<O> future;
+        try {
+            future = operation.apply(input);
+        } catch (RuntimeException e) {
+            future = CompletableFuture.failedFuture(e);
+        }
+        future.whenComplete((value, error) -> {
+            long latency = System.nanoTime() - itemStart;
+            BatchItemResult<O> result = error == null
+                    ? new BatchItemResult<>(index, value, null, latency)
+                    : new BatchItemResult<>(index, null, toPaymentsenseException(error), latency);
+
+            lock.lock();
+            try {
+                results.set(index, result);
+                inFlight--;
+            } finally {
+                lock.unlock();
+            }
+            drain();
+        });
+    }
+
+    private static PaymentsenseException toPaymentsenseException(Throwable error) {
+        Throwable cause = error;
+        while ((cause instanceof CompletionException || cause instanceof ExecutionException)
+                && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        if (cause instanceof PaymentsenseException) {
+            return (PaymentsenseException) cause;
+        }
+        return new PaymentsenseException("Request failed: " + cause.getMessage(), cause);
+    }
+}
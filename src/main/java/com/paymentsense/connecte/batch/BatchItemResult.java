@@ -0,0 +1,48 @@
+package com.paymentsense.connecte.batch;
+
+import com.paymentsense.connecte.exception.PaymentsenseException;
+import lombok.Getter;
+
+/**
+ * Outcome of a single item in a batch operation.
+ *
+ * @param <T> the result type
+ */
+@Getter
+public final class BatchItemResult<T> {
+    /**
+     * Position of the item in the batch input
+     */
+    private final int index;
+
+    /**
+     * The result, or {@code null} if the item failed
+     */
+    private final T value;
+
+    /**
+     * The failure, or {@code null} if the item succeeded
+     */
+    private final PaymentsenseException error;
+
+    /**
+     * Time from starting the item's request to its completion, in nanoseconds
+     */
+    private final long latencyNanos;
+
+    BatchItemResult(int index, T value, PaymentsenseException error, long latencyNanos) {
+        this.index = index;
+        this.value = value;
+        this.error = error;
+        this.latencyNanos = latencyNanos;
+    }
+
+    /**
+     * Check if the item succeeded.
+     *
+     * @return true if the item has a value and no error
+     */
+    public boolean isSuccess() {
+        return error == null;
+    }
+}
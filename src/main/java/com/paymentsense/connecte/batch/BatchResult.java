@@ -0,0 +1,81 @@
+package com.paymentsense.connecte.batch;
+
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Results of a batch operation, one per input item in input order.
+ *
+ * @param <T> the result type
+ */
+@Getter
+public final class BatchResult<T> {
+    /**
+     * Per-item results, in input order
+     */
+    private final List<BatchItemResult<T>> items;
+
+    /**
+     * Wall-clock duration of the whole batch, in nanoseconds
+     */
+    private final long elapsedNanos;
+
+    /**
+     * Number of items that succeeded
+     */
+    private final int successCount;
+
+    /**
+     * Number of items that failed
+     */
+    private final int failureCount;
+
+    /**
+     * Mean per-item latency, in nanoseconds
+     */
+    private final long averageLatencyNanos;
+
+    /**
+     * Largest per-item latency, in nanoseconds
+     */
+    private final long maxLatencyNanos;
+
+    BatchResult(List<BatchItemResult<T>> items, long elapsedNanos) {
+        this.items = items;
+        this.elapsedNanos = elapsedNanos;
+
+        int successes = 0;
+        long totalLatency = 0;
+        long maxLatency = 0;
+        for (BatchItemResult<T> item : items) {
+            if (item.isSuccess()) {
+                successes++;
+            }
+            totalLatency += item.getLatencyNanos();
+            maxLatency = Math.max(maxLatency, item.getLatencyNanos());
+        }
+        this.successCount = successes;
+        this.failureCount = items.size() - successes;
+        this.averageLatencyNanos = items.isEmpty() ? 0 : totalLatency / items.size();
+        this.maxLatencyNanos = maxLatency;
+    }
+
+    /**
+     * Get the batch throughput.
+     *
+     * @return completed items per second
+     */
+    public double getThroughputPerSecond() {
+        return elapsedNanos == 0 ? 0 : items.size() * 1_000_000_000.0 / elapsedNanos;
+    }
+
+    /**
+     * Check if every item succeeded.
+     *
+     * @return true if no item failed
+     */
+    public boolean isAllSuccessful() {
+        return failureCount == 0;
+    }
+}
@@ -0,0 +1,54 @@
+package com.paymentsense.connecte.cache;
+
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Point-in-time snapshot of cache counters.
+ */
+@Getter
+@ToString
+public final class CacheStats {
+    /**
+     * Lookups answered from the cache
+     */
+    private final long hits;
+
+    /**
+     * Lookups that went to the API
+     */
+    private final long misses;
+
+    /**
+     * Entries removed because they expired or the cache was full
+     */
+    private final long evictions;
+
+    /**
+     * Entries removed by explicit invalidation
+     */
+    private final long invalidations;
+
+    /**
+     * Number of entries currently cached
+     */
+    private final int size;
+
+    CacheStats(long hits, long misses, long evictions, long invalidations, int size) {
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+        this.invalidations = invalidations;
+        this.size = size;
+    }
+
+    /**
+     * Get the fraction of lookups answered from the cache.
+     *
+     * @return the hit rate between 0 and 1
+     */
+    public double getHitRate() {
+        long total = hits + misses;
+        return total == 0 ? 0 : (double) hits / total;
+    }
+}
@@ -0,0 +1,205 @@
+package com.paymentsense.connecte.cache;
+
+import com.paymentsense.connecte.model.PaymentInfo;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded, TTL-based cache of {@link PaymentInfo} by payment ID.
+ * <p>
+ * Lookups are a single concurrent map read. When the cache is full, the entries that
+ * were inserted first are evicted. Expired entries are removed when next looked up or
+ * when they reach the head of the eviction queue.
+ * </p>
+ * <p>
+ * A fetch that races an invalidation must not bring back what was invalidated, so
+ * callers take the key's {@link #version(String) version} before fetching and store the
+ * result with {@link #put(String, PaymentInfo, long)}, which drops it if the key has
+ * been invalidated since. Versions are kept in a fixed set of stripes indexed by key
+ * hash; keys sharing a stripe only cause some extra puts to be dropped.
+ * </p>
+ *
+ * @see PaymentInfoCacheConfig
+ */
+public final class PaymentInfoCache {
+    private static final int VERSION_STRIPES = 256;
+
+    private final int maxSize;
+    private final long pendingTtlNanos;
+    private final long terminalTtlNanos;
+    private final ConcurrentHashMap<String, Entry> entries;
+    private final ConcurrentLinkedQueue<Entry> insertionOrder = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicLongArray versions = new AtomicLongArray(VERSION_STRIPES);
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    /**
+     * Create a cache.
+     *
+     * @param config the cache configuration
+     */
+    public PaymentInfoCache(PaymentInfoCacheConfig config) {
+        this.maxSize = config.getMaxSize();
+        this.pendingTtlNanos = config.getPendingTtl().toNanos();
+        this.terminalTtlNanos = config.getTerminalTtl().toNanos();
+        this.entries = new ConcurrentHashMap<>(Math.min(maxSize, 1024));
+    }
+
+    /**
+     * Look up a payment.
+     *
+     * @param paymentId the payment ID
+     * @return the cached payment information, or {@code null} if absent or expired
+     */
+    public PaymentInfo get(String paymentId) {
+        Entry entry = entries.get(paymentId);
+        if (entry != null) {
+            Value value = entry.value;
+            if (System.nanoTime() - value.expiresAt < 0) {
+                hits.increment();
+                return value.info;
+            }
+            if (entries.remove(paymentId, entry)) {
+                evictions.increment();
+            }
+        }
+        misses.increment();
+        return null;
+    }
+
+    /**
+     * Get the current version of a key, to pass to {@link #put(String, PaymentInfo, long)}
+     * once the payment has been fetched.
+     *
+     * @param paymentId the payment ID
+     * @return the key's version
+     */
+    public long version(String paymentId) {
+        return versions.get(stripe(paymentId));
+    }
+
+    /**
+     * Cache a payment, with a TTL depending on whether it is in a final state, unless
+     * the key has been invalidated since the version was taken.
+     *
+     * @param paymentId the payment ID
+     * @param info      the payment information
+     * @param version   the key's {@link #version(String) version} from before the fetch
+     * @return true if the payment was cached
+     */
+    public boolean put(String paymentId, PaymentInfo info, long version) {
+        long ttl = info.isTerminal() ? terminalTtlNanos : pendingTtlNanos;
+        if (ttl == 0) {
+            return false;
+        }
+        Value value = new Value(info, System.nanoTime() + ttl);
+        int stripe = stripe(paymentId);
+        if (versions.get(stripe) != version) {
+            return false;
+        }
+
+        // Checked again under the map's lock for the key, which invalidate() also takes
+        // after bumping the version, so an invalidation either sees this value or drops it
+        Entry created = new Entry(paymentId, value);
+        Entry entry = entries.compute(paymentId, (key, existing) -> {
+            if (versions.get(stripe) != version) {
+                return existing;
+            }
+            if (existing == null) {
+                return created;
+            }
+            existing.value = value;
+            return existing;
+        });
+        if (entry == created) {
+            insertionOrder.offer(created);
+            queued.incrementAndGet();
+            evictIfNeeded();
+        }
+        return entry != null && entry.value == value;
+    }
+
+    /**
+     * Remove a payment from the cache, e.g. after an operation that changed it.
+     *
+     * @param paymentId the payment ID
+     */
+    public void invalidate(String paymentId) {
+        versions.incrementAndGet(stripe(paymentId));
+        if (entries.remove(paymentId) != null) {
+            invalidations.increment();
+        }
+    }
+
+    /**
+     * Remove every entry, and drop the results of fetches already in flight.
+     */
+    public void clear() {
+        for (int i = 0; i < VERSION_STRIPES; i++) {
+            versions.incrementAndGet(i);
+        }
+        entries.clear();
+        insertionOrder.clear();
+        queued.set(0);
+    }
+
+    /**
+     * Get a snapshot of the cache counters.
+     *
+     * @return the cache statistics
+     */
+    public CacheStats stats() {
+        return new CacheStats(hits.sum(), misses.sum(), evictions.sum(), invalidations.sum(), entries.size());
+    }
+
+    /**
+     * Evict the oldest entries while the cache is over capacity. The queue may also hold
+     * entries already invalidated; those are dropped as they are reached, and the queue
+     * itself is kept within twice the capacity.
+     */
+    private void evictIfNeeded() {
+        while (entries.size() > maxSize || queued.get() > 2 * maxSize) {
+            Entry oldest = insertionOrder.poll();
+            if (oldest == null) {
+                return;
+            }
+            queued.decrementAndGet();
+            if (entries.remove(oldest.key, oldest)) {
+                evictions.increment();
+            }
+        }
+    }
+
+    private static int stripe(String paymentId) {
+        int h = paymentId.hashCode();
+        return (h ^ (h >>> 16)) & (VERSION_STRIPES - 1);
+    }
+
+    private static final class Entry {
+        final String key;
+        volatile Value value;
+
+        Entry(String key, Value value) {
+            this.key = key;
+            this.value = value;
+        }
+    }
+
+    private static final class Value {
+        final PaymentInfo info;
+        final long expiresAt;
+
+        Value(PaymentInfo info, long expiresAt) {
+            this.info = info;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
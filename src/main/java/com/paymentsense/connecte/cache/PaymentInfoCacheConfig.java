@@ -0,0 +1,69 @@
+package com.paymentsense.connecte.cache;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.Duration;
+
+/**
+ * Configuration for the read-through {@code getPaymentInfo} cache.
+ * <p>
+ * Payments in a final state (see {@code PaymentInfo.isTerminal()}) no longer change, so
+ * they are cached for {@link #terminalTtl}; payments still in progress only for the much
+ * shorter {@link #pendingTtl}. Cached {@code PaymentInfo} instances are shared between
+ * callers and must not be modified.
+ * </p>
+ */
+@Data
+@Builder
+public class PaymentInfoCacheConfig {
+    /**
+     * Whether the cache is enabled
+     */
+    @Builder.Default
+    private final boolean enabled = true;
+
+    /**
+     * Maximum number of cached payments
+     */
+    @Builder.Default
+    private final int maxSize = 10_000;
+
+    /**
+     * Time to live for payments that are still in progress
+     */
+    @Builder.Default
+    private final Duration pendingTtl = Duration.ofSeconds(2);
+
+    /**
+     * Time to live for payments in a final state
+     */
+    @Builder.Default
+    private final Duration terminalTtl = Duration.ofMinutes(10);
+
+    /**
+     * Get a configuration with caching turned off.
+     *
+     * @return a disabled configuration
+     */
+    public static PaymentInfoCacheConfig disabled() {
+        return PaymentInfoCacheConfig.builder().enabled(false).build();
+    }
+
+    /**
+     * Validate the configuration.
+     *
+     * @throws IllegalArgumentException if the configuration is invalid
+     */
+    public void validate() {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Cache max size must be at least 1");
+        }
+        if (pendingTtl == null || pendingTtl.isNegative()) {
+            throw new IllegalArgumentException("Pending TTL cannot be negative");
+        }
+        if (terminalTtl == null || terminalTtl.isNegative()) {
+            throw new IllegalArgumentException("Terminal TTL cannot be negative");
+        }
+    }
+}
@@ -1,15 +1,33 @@
 package com.paymentsense.connecte.config;
 
+import com.paymentsense.connecte.cache.PaymentInfoCacheConfig;
+import com.paymentsense.connecte.credentials.CredentialProvider;
+import com.paymentsense.connecte.idempotency.IdempotencyConfig;
+import com.paymentsense.connecte.interceptor.Interceptor;
+import com.paymentsense.connecte.journal.CrossReferenceJournal;
+import com.paymentsense.connecte.metrics.MetricsListener;
+import com.paymentsense.connecte.polling.PollingConfig;
+import com.paymentsense.connecte.resilience.CircuitBreakerConfig;
+import com.paymentsense.connecte.resilience.HedgingConfig;
+import com.paymentsense.connecte.resilience.RateLimitConfig;
+import com.paymentsense.connecte.resilience.RetryPolicy;
+import com.paymentsense.connecte.service.Endpoint;
 import lombok.Builder;
 import lombok.Data;
 
+import java.net.ProxySelector;
+import java.net.http.HttpClient;
 import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
 
 /**
  * Configuration for the Paymentsense Connect-E client.
  */
 @Data
-@Builder
+@Builder(toBuilder = true)
 public class ClientConfig {
     /**
      * API key (JWT token) for authentication
@@ -22,6 +40,12 @@ public class ClientConfig {
     @Builder.Default
     private final Environment environment = Environment.TEST;
 
+    /**
+     * Custom API base URL (e.g. {@code http://localhost:8080/v1}) overriding the
+     * environment's API URL; for local stubs and load testing
+     */
+    private final String baseUrl;
+
     /**
      * HTTP request timeout
      */
@@ -59,27 +83,240 @@ public class ClientConfig {
      */
     private final String userIpAddress;
 
+    /**
+     * HTTP protocol version to prefer. Defaults to HTTP/2, which multiplexes concurrent
+     * requests over a single connection and falls back to HTTP/1.1 if the server does not
+     * negotiate it.
+     */
+    @Builder.Default
+    private final HttpClient.Version httpVersion = HttpClient.Version.HTTP_2;
+
+    /**
+     * Timeout for establishing a connection. Defaults to 10 seconds so that an unreachable
+     * host fails well before the overall request {@link #timeout}.
+     */
+    @Builder.Default
+    private final Duration connectTimeout = Duration.ofSeconds(10);
+
+    /**
+     * Executor for asynchronous tasks and response handling. When {@code null} (the default)
+     * the HttpClient uses its own unbounded cached thread pool; high-throughput servers
+     * should supply a dedicated, bounded executor.
+     */
+    private final Executor executor;
+
+    /**
+     * Maximum number of idle HTTP/1.1 connections kept per destination. When {@code null}
+     * (the default) the JDK default of unbounded is used.
+     * <p>
+     * The JDK reads this value ({@code jdk.httpclient.connectionPoolSize}) once per JVM, so it
+     * is only applied if that system property is not already set and takes effect only if
+     * set before the first HttpClient in the JVM is used.
+     * </p>
+     */
+    private final Integer connectionPoolSize;
+
+    /**
+     * How long idle connections are kept alive. When {@code null} (the default) the JDK
+     * default of 1200 seconds is used.
+     * <p>
+     * Like {@link #connectionPoolSize}, this maps to the JVM-wide
+     * {@code jdk.httpclient.keepalive.timeout} system property.
+     * </p>
+     */
+    private final Duration keepAliveTimeout;
+
+    /**
+     * Proxy selector for outbound connections. When {@code null} (the default) no proxy
+     * is used.
+     */
+    private final ProxySelector proxy;
+
+    /**
+     * Whether to register Jackson's Blackbird module, which replaces reflective property
+     * access with generated accessors. Requires
+     * {@code com.fasterxml.jackson.module:jackson-module-blackbird} on the classpath.
+     */
+    @Builder.Default
+    private final boolean blackbird = false;
+
+    /**
+     * Retry policy for failed requests. Defaults to up to 3 attempts with full-jitter
+     * exponential backoff, applied only where retrying is safe for the operation;
+     * use {@link RetryPolicy#disabled()} to turn retries off.
+     */
+    @Builder.Default
+    private final RetryPolicy retryPolicy = RetryPolicy.builder().build();
+
+    /**
+     * Circuit breaker settings, applied separately to each endpoint. Enabled by default;
+     * use {@link CircuitBreakerConfig#disabled()} to turn it off.
+     */
+    @Builder.Default
+    private final CircuitBreakerConfig circuitBreaker = CircuitBreakerConfig.builder().build();
+
+    /**
+     * Client-side rate limits per endpoint, applied to requests made with this
+     * configuration's API key. Endpoints without an entry are not limited (the default).
+     */
+    @Builder.Default
+    private final Map<Endpoint, RateLimitConfig> rateLimits = Collections.emptyMap();
+
+    /**
+     * Read-through cache in front of {@code getPaymentInfo}. Disabled by default.
+     */
+    @Builder.Default
+    private final PaymentInfoCacheConfig paymentInfoCache = PaymentInfoCacheConfig.disabled();
+
+    /**
+     * Whether concurrent {@code getPaymentInfo} calls for the same payment share a single
+     * in-flight request. Enabled by default; callers sharing a request receive the same
+     * {@code PaymentInfo} instance.
+     */
+    @Builder.Default
+    private final boolean requestCoalescing = true;
+
+    /**
+     * Listener notified of every HTTP exchange; the default no-op listener disables
+     * measurement entirely
+     */
+    @Builder.Default
+    private final MetricsListener metricsListener = MetricsListener.NOOP;
+
+    /**
+     * Interceptors run around every HTTP exchange, in order
+     */
+    @Builder.Default
+    private final List<Interceptor> interceptors = Collections.emptyList();
+
+    /**
+     * Threads the HTTP transport runs on; {@link ExecutionMode#VIRTUAL} requires Java 21
+     * and is ignored when a custom {@link #executor} is set
+     */
+    @Builder.Default
+    private final ExecutionMode executionMode = ExecutionMode.PLATFORM;
+
+    /**
+     * Settings for {@code pollPaymentInfo}; the polling thread is only started on first use
+     */
+    @Builder.Default
+    private final PollingConfig polling = PollingConfig.builder().build();
+
+    /**
+     * Write-ahead journal for cross-reference operations; {@code null} (the default)
+     * disables journaling. The caller opens and closes the journal.
+     */
+    private final CrossReferenceJournal journal;
+
+    /**
+     * Reuse of payment tokens for repeated {@code createPaymentToken} requests. Disabled by default.
+     */
+    @Builder.Default
+    private final IdempotencyConfig idempotency = IdempotencyConfig.disabled();
+
+    /**
+     * Maximum number of calls in flight at once, each counted until its last retry
+     * finishes; calls beyond it fail fast. {@code null} (the default) means no limit.
+     */
+    private final Integer maxConcurrentRequests;
+
+    /**
+     * Source of the API key and gateway credentials, read on every request so they can be
+     * rotated without rebuilding the client. When {@code null} (the default) the fixed
+     * {@link #apiKey}, {@link #gatewayUsername} and {@link #gatewayPassword} are used.
+     */
+    private final CredentialProvider credentialProvider;
+
+    /**
+     * Hedged requests for {@code getPaymentInfo}. Disabled by default.
+     */
+    @Builder.Default
+    private final HedgingConfig hedging = HedgingConfig.disabled();
+
     /**
      * Validate the configuration.
      *
      * @throws IllegalArgumentException if configuration is invalid
      */
     public void validate() {
-        if (apiKey == null || apiKey.trim().isEmpty()) {
+        if (credentialProvider == null && (apiKey == null || apiKey.trim().isEmpty())) {
             throw new IllegalArgumentException("API key is required");
         }
         if (environment == null) {
             throw new IllegalArgumentException("Environment is required");
         }
+        if (baseUrl != null && !baseUrl.startsWith("http://") && !baseUrl.startsWith("https://")) {
+            throw new IllegalArgumentException("Base URL must be an http:// or https:// URL");
+        }
+        if (httpVersion == null) {
+            throw new IllegalArgumentException("HTTP version is required");
+        }
+        if (connectTimeout == null || connectTimeout.isNegative() || connectTimeout.isZero()) {
+            throw new IllegalArgumentException("Connect timeout must be positive");
+        }
+        if (connectionPoolSize != null && connectionPoolSize < 0) {
+            throw new IllegalArgumentException("Connection pool size cannot be negative");
+        }
+        if (keepAliveTimeout != null && (keepAliveTimeout.isNegative() || keepAliveTimeout.isZero())) {
+            throw new IllegalArgumentException("Keep-alive timeout must be positive");
+        }
+        if (retryPolicy == null) {
+            throw new IllegalArgumentException("Retry policy is required");
+        }
+        retryPolicy.validate();
+        if (circuitBreaker == null) {
+            throw new IllegalArgumentException("Circuit breaker configuration is required");
+        }
+        circuitBreaker.validate();
+        if (rateLimits == null) {
+            throw new IllegalArgumentException("Rate limits cannot be null");
+        }
+        rateLimits.values().forEach(RateLimitConfig::validate);
+        if (paymentInfoCache == null) {
+            throw new IllegalArgumentException("Payment info cache configuration is required");
+        }
+        paymentInfoCache.validate();
+        if (metricsListener == null) {
+            throw new IllegalArgumentException("Metrics listener cannot be null");
+        }
+        if (interceptors == null) {
+            throw new IllegalArgumentException("Interceptors cannot be null");
+        }
+        for (Interceptor interceptor : interceptors) {
+            if (interceptor == null) {
+                throw new IllegalArgumentException("Interceptors cannot contain null");
+            }
+        }
+        if (executionMode == null) {
+            throw new IllegalArgumentException("Execution mode is required");
+        }
+        if (!executionMode.isAvailable()) {
+            throw new IllegalArgumentException("Execution mode " + executionMode + " requires Java 21 or later");
+        }
+        if (polling == null) {
+            throw new IllegalArgumentException("Polling configuration is required");
+        }
+        polling.validate();
+        if (idempotency == null) {
+            throw new IllegalArgumentException("Idempotency configuration is required");
+        }
+        idempotency.validate();
+        if (maxConcurrentRequests != null && maxConcurrentRequests < 1) {
+            throw new IllegalArgumentException("Max concurrent requests must be at least 1");
+        }
+        if (hedging == null) {
+            throw new IllegalArgumentException("Hedging configuration is required");
+        }
+        hedging.validate();
     }
 
     /**
      * Get the API base URL for this configuration.
      *
-     * @return the API URL
+     * @return the custom base URL if set, otherwise the environment's API URL
      */
     public String getApiUrl() {
-        return environment.getApiUrl();
+        return baseUrl != null ? baseUrl : environment.getApiUrl();
     }
 
     /**
@@ -0,0 +1,32 @@
+package com.paymentsense.connecte.config;
+
+/**
+ * Kind of threads the client's HTTP transport runs on.
+ */
+public enum ExecutionMode {
+    /**
+     * The {@code HttpClient} default executor (a pool of platform threads)
+     */
+    PLATFORM,
+
+    /**
+     * A new virtual thread per task for the {@code HttpClient} executor and for the
+     * client's retry and rate-limit delays. Requires Java 21 or later.
+     * <p>
+     * The SDK holds no monitors while blocking, so its blocking methods can be called
+     * from virtual threads (e.g. {@link VirtualThreads#newThreadPerTaskExecutor}) without
+     * pinning their carrier thread. Note that the JDK runs the dependent actions of
+     * {@code sendAsync} futures on the common pool rather than on the client's executor.
+     * </p>
+     */
+    VIRTUAL;
+
+    /**
+     * Check whether this mode can be used on the running JVM.
+     *
+     * @return true if the mode is available
+     */
+    public boolean isAvailable() {
+        return this == PLATFORM || VirtualThreads.isSupported();
+    }
+}
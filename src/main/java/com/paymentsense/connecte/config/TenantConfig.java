@@ -0,0 +1,73 @@
+package com.paymentsense.connecte.config;
+
+import com.paymentsense.connecte.credentials.CredentialProvider;
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * Per-merchant settings for a client in a {@code TenantRegistry}.
+ * <p>
+ * Credentials are always the tenant's own; the URLs and concurrency limit fall back to
+ * the registry's shared {@link ClientConfig} when left {@code null}.
+ * </p>
+ */
+@Data
+@Builder
+public class TenantConfig {
+    /**
+     * Identifier the tenant is registered and looked up under
+     */
+    private final String tenantId;
+
+    /**
+     * API key (JWT token) for the merchant
+     */
+    private final String apiKey;
+
+    /**
+     * Gateway username for the merchant
+     */
+    private final String gatewayUsername;
+
+    /**
+     * Gateway password for the merchant
+     */
+    private final String gatewayPassword;
+
+    /**
+     * Merchant URL used as the default for payment tokens
+     */
+    private final String merchantUrl;
+
+    /**
+     * Webhook URL used as the default for payment tokens
+     */
+    private final String webhookUrl;
+
+    /**
+     * Maximum number of the merchant's calls in flight at once
+     */
+    private final Integer maxConcurrentRequests;
+
+    /**
+     * Source of rotating credentials for the merchant, used instead of the fixed ones
+     */
+    private final CredentialProvider credentialProvider;
+
+    /**
+     * Validate the configuration.
+     *
+     * @throws IllegalArgumentException if configuration is invalid
+     */
+    public void validate() {
+        if (tenantId == null || tenantId.isEmpty()) {
+            throw new IllegalArgumentException("Tenant ID is required");
+        }
+        if (credentialProvider == null && (apiKey == null || apiKey.trim().isEmpty())) {
+            throw new IllegalArgumentException("API key is required");
+        }
+        if (maxConcurrentRequests != null && maxConcurrentRequests < 1) {
+            throw new IllegalArgumentException("Max concurrent requests must be at least 1");
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.paymentsense.connecte.config;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Access to virtual threads from code compiled for Java 11.
+ * <p>
+ * This is the Java 11 variant, which reports virtual threads as unsupported. The SDK jar
+ * is a multi-release jar whose {@code META-INF/versions/21} copy of this class creates
+ * real virtual threads on Java 21 and later.
+ * </p>
+ */
+public final class VirtualThreads {
+    private VirtualThreads() {
+    }
+
+    /**
+     * Check whether virtual threads are available.
+     *
+     * @return false on this Java version
+     */
+    public static boolean isSupported() {
+        return false;
+    }
+
+    /**
+     * Create an executor starting a new virtual thread for each task.
+     *
+     * @param namePrefix the thread name prefix; threads are numbered from 0
+     * @return the executor
+     * @throws UnsupportedOperationException always on this Java version
+     */
+    public static ExecutorService newThreadPerTaskExecutor(String namePrefix) {
+        throw new UnsupportedOperationException("Virtual threads require Java 21 or later");
+    }
+}
@@ -0,0 +1,35 @@
+package com.paymentsense.connecte.credentials;
+
+/**
+ * Supplies the credentials for each request.
+ * <p>
+ * {@link #getCredentials()} is called on every request, so implementations must return
+ * quickly and without blocking, typically by reading a field that is replaced whenever the
+ * credentials change. A request uses the credentials current when it is built, including
+ * for its retries.
+ * </p>
+ *
+ * @see RefreshingCredentialProvider
+ */
+@FunctionalInterface
+public interface CredentialProvider {
+    /**
+     * Get the current credentials.
+     *
+     * @return the credentials, never {@code null}
+     */
+    Credentials getCredentials();
+
+    /**
+     * Get a provider that always returns the same credentials.
+     *
+     * @param credentials the credentials
+     * @return a fixed provider
+     */
+    static CredentialProvider of(Credentials credentials) {
+        if (credentials == null) {
+            throw new IllegalArgumentException("Credentials are required");
+        }
+        return () -> credentials;
+    }
+}
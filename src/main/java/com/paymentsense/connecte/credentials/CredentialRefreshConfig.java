@@ -0,0 +1,48 @@
+package com.paymentsense.connecte.credentials;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.Duration;
+
+/**
+ * Schedule for a {@link RefreshingCredentialProvider}.
+ */
+@Data
+@Builder
+public class CredentialRefreshConfig {
+    /**
+     * How long before the credentials expire to load new ones
+     */
+    @Builder.Default
+    private final Duration refreshAhead = Duration.ofMinutes(5);
+
+    /**
+     * How often to reload credentials that have no expiry
+     */
+    @Builder.Default
+    private final Duration refreshInterval = Duration.ofHours(1);
+
+    /**
+     * How long to wait before trying again after a failed load
+     */
+    @Builder.Default
+    private final Duration retryInterval = Duration.ofSeconds(30);
+
+    /**
+     * Validate the configuration.
+     *
+     * @throws IllegalArgumentException if the configuration is invalid
+     */
+    public void validate() {
+        if (refreshAhead == null || refreshAhead.isNegative()) {
+            throw new IllegalArgumentException("Refresh-ahead time cannot be negative");
+        }
+        if (refreshInterval == null || refreshInterval.isNegative() || refreshInterval.isZero()) {
+            throw new IllegalArgumentException("Refresh interval must be positive");
+        }
+        if (retryInterval == null || retryInterval.isNegative() || retryInterval.isZero()) {
+            throw new IllegalArgumentException("Retry interval must be positive");
+        }
+    }
+}
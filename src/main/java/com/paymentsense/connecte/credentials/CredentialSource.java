@@ -0,0 +1,19 @@
+package com.paymentsense.connecte.credentials;
+
+/**
+ * Loads fresh credentials, e.g. from a secrets manager or by requesting a new JWT.
+ * <p>
+ * Called from the background refresh thread of a {@link RefreshingCredentialProvider},
+ * never on the request path, so it may block.
+ * </p>
+ */
+@FunctionalInterface
+public interface CredentialSource {
+    /**
+     * Load the current credentials.
+     *
+     * @return the credentials
+     * @throws Exception if they cannot be loaded; the previous credentials are kept
+     */
+    Credentials load() throws Exception;
+}
@@ -0,0 +1,58 @@
+package com.paymentsense.connecte.credentials;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.Instant;
+
+/**
+ * Immutable set of credentials the client authenticates with.
+ * <p>
+ * The {@code Authorization} header value is built once here rather than on every
+ * request. {@link #toString()} never includes the secrets.
+ * </p>
+ */
+@Getter
+public final class Credentials {
+    /**
+     * API key (JWT token) sent as the bearer token
+     */
+    private final String apiKey;
+
+    /**
+     * Gateway username filled into payment tokens that do not set one
+     */
+    private final String gatewayUsername;
+
+    /**
+     * Gateway password filled into payment tokens that do not set one
+     */
+    private final String gatewayPassword;
+
+    /**
+     * When the credentials stop being valid; {@code null} if they do not expire
+     */
+    private final Instant expiresAt;
+
+    /**
+     * Value of the {@code Authorization} header for {@link #apiKey}
+     */
+    private final String authorizationHeader;
+
+    @Builder
+    private Credentials(String apiKey, String gatewayUsername, String gatewayPassword, Instant expiresAt) {
+        if (apiKey == null || apiKey.trim().isEmpty()) {
+            throw new IllegalArgumentException("API key is required");
+        }
+        this.apiKey = apiKey;
+        this.gatewayUsername = gatewayUsername;
+        this.gatewayPassword = gatewayPassword;
+        this.expiresAt = expiresAt;
+        this.authorizationHeader = "Bearer " + apiKey;
+    }
+
+    @Override
+    public String toString() {
+        return "Credentials(gatewayUsername=" + gatewayUsername + ", expiresAt=" + expiresAt + ")";
+    }
+}
@@ -0,0 +1,201 @@
+package com.paymentsense.connecte.credentials;
+
+import com.paymentsense.connecte.exception.PaymentsenseException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Credential provider that reloads its credentials in the background.
+ * <p>
+ * Requests read the current credentials from a volatile field. A single daemon thread
+ * loads new ones from the {@link CredentialSource} {@link CredentialRefreshConfig#getRefreshAhead()}
+ * before they expire (or every {@link CredentialRefreshConfig#getRefreshInterval()} if they
+ * do not) and publishes them by replacing that field, so rotation never blocks a request
+ * and requests already built keep the credentials they started with. A failed load keeps
+ * the previous credentials and is retried after {@link CredentialRefreshConfig#getRetryInterval()}.
+ * </p>
+ * <p>
+ * The caller owns the provider and closes it when no client uses it any more.
+ * </p>
+ */
+public final class RefreshingCredentialProvider implements CredentialProvider, AutoCloseable {
+    private final CredentialSource source;
+    private final CredentialRefreshConfig config;
+    private final ScheduledThreadPoolExecutor scheduler;
+    private final ReentrantLock scheduleLock = new ReentrantLock();
+    private volatile Credentials current;
+    private volatile Exception lastError;
+    private ScheduledFuture<?> nextRefresh;
+
+    private final LongAdder refreshes = new LongAdder();
+    private final LongAdder failedRefreshes = new LongAdder();
+
+    private RefreshingCredentialProvider(CredentialSource source, CredentialRefreshConfig config,
+                                         Credentials initial) {
+        this.source = source;
+        this.config = config;
+        this.current = initial;
+        this.scheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "paymentsense-credentials");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.scheduler.setRemoveOnCancelPolicy(true);
+    }
+
+    /**
+     * Load the initial credentials and start refreshing them in the background.
+     *
+     * @param source the source to load credentials from
+     * @param config the refresh schedule
+     * @return the running provider
+     * @throws PaymentsenseException    if the initial credentials cannot be loaded
+     * @throws IllegalArgumentException if the configuration is invalid
+     */
+    public static RefreshingCredentialProvider start(CredentialSource source, CredentialRefreshConfig config)
+            throws PaymentsenseException {
+        if (source == null) {
+            throw new IllegalArgumentException("Credential source is required");
+        }
+        config.validate();
+
+        Credentials initial;
+        try {
+            initial = source.load();
+        } catch (Exception e) {
+            throw new PaymentsenseException("Failed to load credentials: " + e.getMessage(),
+                    "CREDENTIALS_UNAVAILABLE", null, e);
+        }
+        if (initial == null) {
+            throw new PaymentsenseException("Credential source returned no credentials",
+                    "CREDENTIALS_UNAVAILABLE", null);
+        }
+        RefreshingCredentialProvider provider = new RefreshingCredentialProvider(source, config, initial);
+        provider.scheduleAfter(initial);
+        return provider;
+    }
+
+    @Override
+    public Credentials getCredentials() {
+        return current;
+    }
+
+    /**
+     * Publish credentials obtained elsewhere, e.g. pushed by a rotation hook, and
+     * reschedule the next refresh from their expiry.
+     *
+     * @param credentials the new credentials
+     */
+    public void update(Credentials credentials) {
+        if (credentials == null) {
+            throw new IllegalArgumentException("Credentials are required");
+        }
+        current = credentials;
+        scheduleAfter(credentials);
+    }
+
+    /**
+     * Reload the credentials now on the background thread instead of waiting for the
+     * next scheduled refresh.
+     */
+    public void refreshNow() {
+        schedule(0);
+    }
+
+    /**
+     * Get the number of successful background loads.
+     *
+     * @return the refresh count
+     */
+    public long getRefreshCount() {
+        return refreshes.sum();
+    }
+
+    /**
+     * Get the number of background loads that failed.
+     *
+     * @return the failed refresh count
+     */
+    public long getFailedRefreshCount() {
+        return failedRefreshes.sum();
+    }
+
+    /**
+     * Get the error of the most recent load, if it failed.
+     *
+     * @return the error, or {@code null} if the last load succeeded
+     */
+    public Exception getLastRefreshError() {
+        return lastError;
+    }
+
+    /**
+     * Stop refreshing. The last credentials stay available.
+     */
+    @Override
+    public void close() {
+        scheduleLock.lock();
+        try {
+            scheduler.shutdownNow();
+        } finally {
+            scheduleLock.unlock();
+        }
+    }
+
+    private void refresh() {
+        Credentials loaded;
+        try {
+            loaded = source.load();
+            if (loaded == null) {
+                throw new IllegalStateException("Credential source returned no credentials");
+            }
+        } catch (Exception e) {
+            failedRefreshes.increment();
+            lastError = e;
+            schedule(config.getRetryInterval().toMillis());
+            return;
+        }
+        current = loaded;
+        lastError = null;
+        refreshes.increment();
+        scheduleAfter(loaded);
+    }
+
+    /**
+     * Schedule the refresh due for the given credentials.
+     */
+    private void scheduleAfter(Credentials credentials) {
+        Instant expiresAt = credentials.getExpiresAt();
+        if (expiresAt == null) {
+            schedule(config.getRefreshInterval().toMillis());
+            return;
+        }
+        long delayMillis = Duration.between(Instant.now(), expiresAt.minus(config.getRefreshAhead())).toMillis();
+        // Credentials already inside the refresh window would otherwise be reloaded in a tight loop
+        schedule(delayMillis > 0 ? delayMillis : config.getRetryInterval().toMillis());
+    }
+
+    /**
+     * Replace the pending refresh with one after the given delay.
+     */
+    private void schedule(long delayMillis) {
+        scheduleLock.lock();
+        try {
+            if (scheduler.isShutdown()) {
+                return;
+            }
+            if (nextRefresh != null) {
+                nextRefresh.cancel(false);
+            }
+            nextRefresh = scheduler.schedule(this::refresh, delayMillis, TimeUnit.MILLISECONDS);
+        } finally {
+            scheduleLock.unlock();
+        }
+    }
+}
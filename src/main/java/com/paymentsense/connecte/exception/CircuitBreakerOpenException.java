@@ -0,0 +1,26 @@
+package com.paymentsense.connecte.exception;
+
+import lombok.Getter;
+
+/**
+ * Exception thrown when a call is rejected because the circuit breaker for its endpoint
+ * is open.
+ * Occurs while Connect-E is failing or responding slowly; no request is sent.
+ */
+@Getter
+public class CircuitBreakerOpenException extends PaymentsenseException {
+    /**
+     * Path of the endpoint whose circuit is open
+     */
+    private final String endpoint;
+
+    /**
+     * Create a CircuitBreakerOpenException for an endpoint.
+     *
+     * @param endpoint the endpoint path
+     */
+    public CircuitBreakerOpenException(String endpoint) {
+        super("Circuit breaker is open for " + endpoint, "CIRCUIT_OPEN", null);
+        this.endpoint = endpoint;
+    }
+}
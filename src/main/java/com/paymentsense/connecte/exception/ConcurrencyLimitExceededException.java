@@ -0,0 +1,26 @@
+package com.paymentsense.connecte.exception;
+
+import lombok.Getter;
+
+/**
+ * Exception thrown when a client already has its maximum number of requests in flight.
+ * The request was not sent and may be retried later.
+ */
+@Getter
+public class ConcurrencyLimitExceededException extends PaymentsenseException {
+    /**
+     * The client's concurrency limit
+     */
+    private final int maxConcurrentRequests;
+
+    /**
+     * Create a ConcurrencyLimitExceededException.
+     *
+     * @param maxConcurrentRequests the concurrency limit that was reached
+     */
+    public ConcurrencyLimitExceededException(int maxConcurrentRequests) {
+        super("Client concurrency limit of " + maxConcurrentRequests + " requests reached",
+                "CONCURRENCY_LIMITED", null);
+        this.maxConcurrentRequests = maxConcurrentRequests;
+    }
+}
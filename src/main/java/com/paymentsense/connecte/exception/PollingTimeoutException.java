@@ -0,0 +1,33 @@
+package com.paymentsense.connecte.exception;
+
+import com.paymentsense.connecte.model.PaymentInfo;
+import lombok.Getter;
+
+/**
+ * Exception thrown when a polled payment does not reach a final state before its deadline.
+ */
+@Getter
+public class PollingTimeoutException extends PaymentsenseException {
+    /**
+     * ID of the payment being polled
+     */
+    private final String paymentId;
+
+    /**
+     * The last payment information received, or {@code null} if no poll succeeded
+     */
+    private final transient PaymentInfo lastPaymentInfo;
+
+    /**
+     * Create a PollingTimeoutException.
+     *
+     * @param paymentId       the payment ID
+     * @param lastPaymentInfo the last payment information received, or {@code null}
+     */
+    public PollingTimeoutException(String paymentId, PaymentInfo lastPaymentInfo) {
+        super("Payment " + paymentId + " did not reach a final state before the polling deadline",
+                "POLLING_TIMEOUT", null);
+        this.paymentId = paymentId;
+        this.lastPaymentInfo = lastPaymentInfo;
+    }
+}
@@ -0,0 +1,26 @@
+package com.paymentsense.connecte.exception;
+
+import lombok.Getter;
+
+/**
+ * Exception thrown when the client-side rate limit for an endpoint has no permit
+ * available within the allowed wait.
+ * The request was not sent and may be retried later.
+ */
+@Getter
+public class RateLimitExceededException extends PaymentsenseException {
+    /**
+     * Path of the rate-limited endpoint
+     */
+    private final String endpoint;
+
+    /**
+     * Create a RateLimitExceededException for an endpoint.
+     *
+     * @param endpoint the endpoint path
+     */
+    public RateLimitExceededException(String endpoint) {
+        super("Client rate limit exceeded for " + endpoint, "RATE_LIMITED", null);
+        this.endpoint = endpoint;
+    }
+}
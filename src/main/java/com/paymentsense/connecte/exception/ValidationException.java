@@ -1,10 +1,21 @@
 package com.paymentsense.connecte.exception;
 
+import lombok.Getter;
+
+import java.util.Collections;
+import java.util.List;
+
 /**
  * Exception thrown when request validation fails.
  * Occurs when required fields are missing or invalid.
  */
+@Getter
 public class ValidationException extends PaymentsenseException {
+    /**
+     * Every violation found, in the order they were checked
+     */
+    private final List<String> violations;
+
     /**
      * Create a ValidationException with a message.
      *
@@ -12,6 +23,20 @@ public class ValidationException extends PaymentsenseException {
      */
     public ValidationException(String message) {
         super(message, "VALIDATION_ERROR", 400);
+        this.violations = Collections.singletonList(message);
+    }
+
+    /**
+     * Create a ValidationException reporting several violations.
+     *
+     * @param violations the violation messages, at least one
+     */
+    public ValidationException(List<String> violations) {
+        super(violations.size() == 1
+                ? violations.get(0)
+                : "Validation failed: " + String.join("; ", violations),
+            "VALIDATION_ERROR", 400);
+        this.violations = Collections.unmodifiableList(violations);
     }
 
     /**
@@ -22,6 +47,7 @@ public class ValidationException extends PaymentsenseException {
      */
     public ValidationException(String message, Throwable cause) {
         super(message, "VALIDATION_ERROR", 400, cause);
+        this.violations = Collections.singletonList(message);
     }
 
     /**
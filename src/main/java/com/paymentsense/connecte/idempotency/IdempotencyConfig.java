@@ -0,0 +1,66 @@
+package com.paymentsense.connecte.idempotency;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.Duration;
+
+/**
+ * Configuration for idempotent {@code createPaymentToken} calls.
+ * <p>
+ * A request whose order ID, amount, currency, transaction type, cross reference and
+ * previous transaction ID match an earlier one is answered with the earlier token while
+ * it has at least {@link #minRemainingValidity} left, and concurrent identical requests
+ * share one API call. Returned responses may be shared between callers and must not be
+ * modified.
+ * </p>
+ */
+@Data
+@Builder
+public class IdempotencyConfig {
+    /**
+     * Whether idempotency is enabled
+     */
+    @Builder.Default
+    private final boolean enabled = true;
+
+    /**
+     * Maximum number of remembered tokens in the default in-memory store
+     */
+    @Builder.Default
+    private final int maxSize = 10_000;
+
+    /**
+     * How long a remembered token must still be valid to be handed out again
+     */
+    @Builder.Default
+    private final Duration minRemainingValidity = Duration.ofMinutes(1);
+
+    /**
+     * Custom store, e.g. shared between instances; {@code null} for an in-memory store of {@link #maxSize}
+     */
+    private final IdempotencyStore store;
+
+    /**
+     * Get a configuration with idempotency turned off.
+     *
+     * @return a disabled configuration
+     */
+    public static IdempotencyConfig disabled() {
+        return IdempotencyConfig.builder().enabled(false).build();
+    }
+
+    /**
+     * Validate the configuration.
+     *
+     * @throws IllegalArgumentException if the configuration is invalid
+     */
+    public void validate() {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Idempotency max size must be at least 1");
+        }
+        if (minRemainingValidity == null || minRemainingValidity.isNegative()) {
+            throw new IllegalArgumentException("Minimum remaining token validity cannot be negative");
+        }
+    }
+}
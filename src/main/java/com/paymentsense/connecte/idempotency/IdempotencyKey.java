@@ -0,0 +1,105 @@
+package com.paymentsense.connecte.idempotency;
+
+import com.paymentsense.connecte.model.PaymentToken;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+/**
+ * Identifies repeated {@code createPaymentToken} requests: the order ID plus a 64-bit
+ * hash of the amount, currency, transaction type and the transaction it refers to.
+ * <p>
+ * The transaction type and the cross reference and previous transaction ID are part of
+ * the hash so that, for example, a refund token for an order is never answered with the
+ * sale token created for the same order and amount, nor a refund of one transaction
+ * with the token for a refund of another.
+ * </p>
+ */
+public final class IdempotencyKey {
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final String orderId;
+    private final long fingerprint;
+
+    /**
+     * Create a key.
+     *
+     * @param orderId     the merchant order ID
+     * @param fingerprint hash of the amount, currency, transaction type and referenced transaction
+     */
+    public IdempotencyKey(String orderId, long fingerprint) {
+        this.orderId = Objects.requireNonNull(orderId, "orderId");
+        this.fingerprint = fingerprint;
+    }
+
+    /**
+     * Derive the key for a payment token request.
+     *
+     * @param paymentToken the request
+     * @return the key, or {@code null} if the request has no order ID
+     */
+    public static IdempotencyKey of(PaymentToken paymentToken) {
+        if (paymentToken.getOrderId() == null || paymentToken.getOrderId().isEmpty()) {
+            return null;
+        }
+        long hash = FNV_OFFSET;
+        hash = hash(hash, paymentToken.getAmount());
+        hash = hash(hash, paymentToken.getCurrencyCode());
+        hash = hash(hash, paymentToken.getTransactionType() == null
+                ? null : paymentToken.getTransactionType().getValue());
+        hash = hash(hash, paymentToken.getCrossReference());
+        hash = hash(hash, paymentToken.getPreviousTransactionId());
+        return new IdempotencyKey(paymentToken.getOrderId(), hash);
+    }
+
+    /**
+     * Get the merchant order ID.
+     *
+     * @return the order ID
+     */
+    public String getOrderId() {
+        return orderId;
+    }
+
+    /**
+     * Get the hash of the amount, currency, transaction type and referenced transaction.
+     *
+     * @return the fingerprint
+     */
+    public long getFingerprint() {
+        return fingerprint;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof IdempotencyKey)) {
+            return false;
+        }
+        IdempotencyKey other = (IdempotencyKey) o;
+        return fingerprint == other.fingerprint && orderId.equals(other.orderId);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * orderId.hashCode() + Long.hashCode(fingerprint);
+    }
+
+    @Override
+    public String toString() {
+        return orderId + ":" + Long.toHexString(fingerprint);
+    }
+
+    private static long hash(long hash, String value) {
+        if (value != null) {
+            for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+                hash = (hash ^ (b & 0xff)) * FNV_PRIME;
+            }
+        }
+        // Field separator, so ("12", "3") and ("1", "23") differ
+        return (hash ^ 0xff) * FNV_PRIME;
+    }
+}
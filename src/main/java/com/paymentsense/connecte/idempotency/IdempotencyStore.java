@@ -0,0 +1,40 @@
+package com.paymentsense.connecte.idempotency;
+
+import com.paymentsense.connecte.model.PaymentTokenResponse;
+
+/**
+ * Remembers the payment tokens created per {@link IdempotencyKey}, so that repeated
+ * {@code createPaymentToken} requests can be answered with the existing token.
+ * <p>
+ * Implementations must be thread-safe and should be bounded. The client checks a stored
+ * token's expiry itself, so a store may return expired tokens. A store shared between
+ * JVMs (e.g. backed by Redis) extends the guarantee across instances; concurrent
+ * duplicates are only coalesced within one client.
+ * </p>
+ *
+ * @see InMemoryIdempotencyStore
+ */
+public interface IdempotencyStore {
+    /**
+     * Look up the token created for a key.
+     *
+     * @param key the key
+     * @return the stored response, or {@code null} if none
+     */
+    PaymentTokenResponse get(IdempotencyKey key);
+
+    /**
+     * Store the token created for a key, replacing any previous one.
+     *
+     * @param key      the key
+     * @param response the response to return for repeated requests
+     */
+    void put(IdempotencyKey key, PaymentTokenResponse response);
+
+    /**
+     * Forget the token stored for a key.
+     *
+     * @param key the key
+     */
+    void remove(IdempotencyKey key);
+}
@@ -0,0 +1,92 @@
+package com.paymentsense.connecte.idempotency;
+
+import com.paymentsense.connecte.model.PaymentTokenResponse;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounded in-process {@link IdempotencyStore}.
+ * <p>
+ * Lookups are a single concurrent map read. When the store is full, the keys that were
+ * stored first are evicted, as they are also the closest to expiring.
+ * </p>
+ */
+public final class InMemoryIdempotencyStore implements IdempotencyStore {
+    private final int maxSize;
+    private final ConcurrentHashMap<IdempotencyKey, Entry> entries;
+    private final ConcurrentLinkedQueue<Entry> insertionOrder = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+
+    /**
+     * Create a store.
+     *
+     * @param maxSize the maximum number of remembered tokens
+     * @throws IllegalArgumentException if maxSize is less than 1
+     */
+    public InMemoryIdempotencyStore(int maxSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Idempotency store max size must be at least 1");
+        }
+        this.maxSize = maxSize;
+        this.entries = new ConcurrentHashMap<>(Math.min(maxSize, 1024));
+    }
+
+    @Override
+    public PaymentTokenResponse get(IdempotencyKey key) {
+        Entry entry = entries.get(key);
+        return entry == null ? null : entry.response;
+    }
+
+    @Override
+    public void put(IdempotencyKey key, PaymentTokenResponse response) {
+        // A re-stored key gets a new entry, so its earlier place in the queue can no
+        // longer evict it
+        Entry entry = new Entry(key, response);
+        entries.put(key, entry);
+        insertionOrder.offer(entry);
+        queued.incrementAndGet();
+        evictIfNeeded();
+    }
+
+    @Override
+    public void remove(IdempotencyKey key) {
+        entries.remove(key);
+    }
+
+    /**
+     * Get the number of remembered tokens.
+     *
+     * @return the store size
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Evict the oldest entries while over capacity. The queue may also hold entries
+     * already removed, or replaced since; those are skipped, and the queue is kept within
+     * twice the capacity.
+     */
+    private void evictIfNeeded() {
+        while (entries.size() > maxSize || queued.get() > 2 * maxSize) {
+            Entry oldest = insertionOrder.poll();
+            if (oldest == null) {
+                return;
+            }
+            queued.decrementAndGet();
+            entries.remove(oldest.key, oldest);
+        }
+    }
+
+    private static final class Entry {
+        final IdempotencyKey key;
+        final PaymentTokenResponse response;
+
+        Entry(IdempotencyKey key, PaymentTokenResponse response) {
+            this.key = key;
+            this.response = response;
+        }
+    }
+}
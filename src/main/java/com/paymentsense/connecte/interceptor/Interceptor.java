@@ -0,0 +1,54 @@
+package com.paymentsense.connecte.interceptor;
+
+/**
+ * Hook around every HTTP exchange made by the client, for both blocking and
+ * non-blocking calls.
+ * <p>
+ * Interceptors run in registration order before the request is sent and in reverse
+ * order once the response (or failure) arrives. They run once per attempt, so a retried
+ * call passes through the chain again. Callbacks run on the thread sending or completing
+ * the exchange and must not block. A runtime exception thrown by an interceptor fails
+ * the call with a {@code PaymentsenseException}.
+ * </p>
+ * <pre>{@code
+ * Interceptor correlation = new Interceptor() {
+ *     public InterceptorResponse onRequest(InterceptorRequest request) {
+ *         request.setHeader("X-Correlation-Id", UUID.randomUUID().toString());
+ *         return null;
+ *     }
+ * };
+ * }</pre>
+ */
+public interface Interceptor {
+    /**
+     * Called before the request is sent. The request's headers and body may be changed.
+     *
+     * @param request the outgoing request
+     * @return {@code null} to continue, or a response to stop the chain: later
+     * interceptors and the network are skipped and the response is handled as if the
+     * API had returned it
+     */
+    default InterceptorResponse onRequest(InterceptorRequest request) {
+        return null;
+    }
+
+    /**
+     * Called when a response is received or produced by a short-circuiting interceptor.
+     * Only interceptors whose {@link #onRequest} ran are called.
+     *
+     * @param request  the request as sent
+     * @param response the response; its body may be replaced
+     */
+    default void onResponse(InterceptorRequest request, InterceptorResponse response) {
+    }
+
+    /**
+     * Called when no response was received, e.g. on a network error or timeout.
+     * Exceptions thrown here are added as suppressed to the original failure.
+     *
+     * @param request the request as sent
+     * @param error   the failure, a {@code PaymentsenseException} or a cancellation
+     */
+    default void onError(InterceptorRequest request, Throwable error) {
+    }
+}
@@ -0,0 +1,184 @@
+package com.paymentsense.connecte.interceptor;
+
+import com.paymentsense.connecte.exception.PaymentsenseException;
+import com.paymentsense.connecte.service.Endpoint;
+
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+/**
+ * Runs an ordered list of {@link Interceptor}s around a single HTTP exchange.
+ * <p>
+ * The client only creates a chain when interceptors are configured, so calls without
+ * interceptors never reach this class.
+ * </p>
+ */
+public final class InterceptorChain {
+    /**
+     * Blocking transport used to send the request when no interceptor short-circuits.
+     */
+    @FunctionalInterface
+    public interface Transport {
+        /**
+         * Send a request.
+         *
+         * @param request the request
+         * @return the response
+         * @throws PaymentsenseException if no response was received
+         */
+        HttpResponse<byte[]> send(HttpRequest request) throws PaymentsenseException;
+    }
+
+    private final Interceptor[] interceptors;
+
+    /**
+     * Create a chain.
+     *
+     * @param interceptors the interceptors, in the order their {@code onRequest} runs
+     */
+    public InterceptorChain(List<Interceptor> interceptors) {
+        this.interceptors = interceptors.toArray(new Interceptor[0]);
+    }
+
+    /**
+     * Run one exchange through the chain, blocking until it completes.
+     *
+     * @param endpoint  the endpoint
+     * @param request   the request built by the client
+     * @param body      the request body, or {@code null}
+     * @param attempt   the attempt number
+     * @param transport sends the (possibly modified) request
+     * @return the response after all interceptors ran
+     * @throws PaymentsenseException if no response was received or an interceptor failed
+     */
+    public InterceptorResponse execute(Endpoint endpoint, HttpRequest request, byte[] body, int attempt,
+                                       Transport transport) throws PaymentsenseException {
+        InterceptorRequest interceptorRequest = new InterceptorRequest(endpoint, request, body, attempt);
+        int[] called = new int[1];
+        InterceptorResponse response;
+        HttpRequest outgoing;
+        try {
+            response = runRequestInterceptors(interceptorRequest, called);
+            outgoing = response == null ? interceptorRequest.toHttpRequest(request) : null;
+        } catch (RuntimeException e) {
+            throw notifyError(interceptorRequest, called[0], interceptorFailure(e));
+        }
+
+        if (response == null) {
+            try {
+                HttpResponse<byte[]> httpResponse = transport.send(outgoing);
+                response = new InterceptorResponse(httpResponse.statusCode(), httpResponse.headers().map(),
+                        httpResponse.body(), false);
+            } catch (PaymentsenseException e) {
+                throw notifyError(interceptorRequest, called[0], e);
+            }
+        }
+
+        try {
+            runResponseInterceptors(interceptorRequest, response, called[0]);
+        } catch (RuntimeException e) {
+            throw interceptorFailure(e);
+        }
+        return response;
+    }
+
+    /**
+     * Run one exchange through the chain without blocking. Cancelling the returned
+     * future cancels the transport future.
+     *
+     * @param endpoint    the endpoint
+     * @param request     the request built by the client
+     * @param body        the request body, or {@code null}
+     * @param attempt     the attempt number
+     * @param transport   sends the (possibly modified) request
+     * @param errorMapper maps transport failures to the client's exception types
+     * @return a future completing with the response after all interceptors ran
+     */
+    public CompletableFuture<InterceptorResponse> executeAsync(
+            Endpoint endpoint, HttpRequest request, byte[] body, int attempt,
+            Function<HttpRequest, CompletableFuture<HttpResponse<byte[]>>> transport,
+            UnaryOperator<Throwable> errorMapper) {
+        InterceptorRequest interceptorRequest = new InterceptorRequest(endpoint, request, body, attempt);
+        int[] called = new int[1];
+        InterceptorResponse shortCircuit;
+        HttpRequest outgoing;
+        try {
+            shortCircuit = runRequestInterceptors(interceptorRequest, called);
+            outgoing = shortCircuit == null ? interceptorRequest.toHttpRequest(request) : null;
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(notifyError(interceptorRequest, called[0], interceptorFailure(e)));
+        }
+        int count = called[0];
+
+        if (shortCircuit != null) {
+            try {
+                runResponseInterceptors(interceptorRequest, shortCircuit, count);
+                return CompletableFuture.completedFuture(shortCircuit);
+            } catch (RuntimeException e) {
+                return CompletableFuture.failedFuture(interceptorFailure(e));
+            }
+        }
+
+        CompletableFuture<InterceptorResponse> result = new CompletableFuture<>();
+        CompletableFuture<HttpResponse<byte[]>> transportFuture = transport.apply(outgoing);
+        result.whenComplete((value, error) -> {
+            if (result.isCancelled()) {
+                transportFuture.cancel(true);
+            }
+        });
+        transportFuture.whenComplete((httpResponse, error) -> {
+            if (error != null) {
+                result.completeExceptionally(notifyError(interceptorRequest, count, errorMapper.apply(error)));
+                return;
+            }
+            InterceptorResponse response = new InterceptorResponse(httpResponse.statusCode(),
+                    httpResponse.headers().map(), httpResponse.body(), false);
+            try {
+                runResponseInterceptors(interceptorRequest, response, count);
+                result.complete(response);
+            } catch (RuntimeException e) {
+                result.completeExceptionally(interceptorFailure(e));
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Call {@code onRequest} in order until one returns a response; {@code called[0]}
+     * tracks how many ran so only those see the outcome.
+     */
+    private InterceptorResponse runRequestInterceptors(InterceptorRequest request, int[] called) {
+        while (called[0] < interceptors.length) {
+            InterceptorResponse response = interceptors[called[0]++].onRequest(request);
+            if (response != null) {
+                return response;
+            }
+        }
+        return null;
+    }
+
+    private void runResponseInterceptors(InterceptorRequest request, InterceptorResponse response, int called) {
+        for (int i = called - 1; i >= 0; i--) {
+            interceptors[i].onResponse(request, response);
+        }
+    }
+
+    private <E extends Throwable> E notifyError(InterceptorRequest request, int called, E error) {
+        for (int i = called - 1; i >= 0; i--) {
+            try {
+                interceptors[i].onError(request, error);
+            } catch (RuntimeException e) {
+                error.addSuppressed(e);
+            }
+        }
+        return error;
+    }
+
+    private static PaymentsenseException interceptorFailure(RuntimeException e) {
+        return new PaymentsenseException("Interceptor failed: " + e.getMessage(), e);
+    }
+}
@@ -0,0 +1,178 @@
+package com.paymentsense.connecte.interceptor;
+
+import com.paymentsense.connecte.service.Endpoint;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Mutable view of an outgoing request, passed through the {@link Interceptor} chain.
+ * <p>
+ * Header names are case-insensitive. The HTTP request is only rebuilt if an
+ * interceptor changed a header or the body.
+ * </p>
+ */
+public final class InterceptorRequest {
+    private final Endpoint endpoint;
+    private final String method;
+    private final URI uri;
+    private final int attempt;
+    private final Map<String, List<String>> headers;
+    private byte[] body;
+    private boolean modified;
+    private Map<String, Object> attributes;
+
+    InterceptorRequest(Endpoint endpoint, HttpRequest request, byte[] body, int attempt) {
+        this.endpoint = endpoint;
+        this.method = request.method();
+        this.uri = request.uri();
+        this.attempt = attempt;
+        this.headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        this.headers.putAll(request.headers().map());
+        this.body = body;
+    }
+
+    /**
+     * Get the endpoint being called.
+     *
+     * @return the endpoint
+     */
+    public Endpoint getEndpoint() {
+        return endpoint;
+    }
+
+    /**
+     * Get the HTTP method.
+     *
+     * @return the method, e.g. {@code GET}
+     */
+    public String getMethod() {
+        return method;
+    }
+
+    /**
+     * Get the request URI.
+     *
+     * @return the URI
+     */
+    public URI getUri() {
+        return uri;
+    }
+
+    /**
+     * Get the attempt number of this exchange.
+     *
+     * @return 1 for the first attempt, 2 for the first retry, and so on
+     */
+    public int getAttempt() {
+        return attempt;
+    }
+
+    /**
+     * Get all headers.
+     *
+     * @return an unmodifiable view of the headers
+     */
+    public Map<String, List<String>> getHeaders() {
+        return Collections.unmodifiableMap(headers);
+    }
+
+    /**
+     * Get the first value of a header.
+     *
+     * @param name the header name
+     * @return the value, or {@code null} if absent
+     */
+    public String getHeader(String name) {
+        List<String> values = headers.get(name);
+        return values == null || values.isEmpty() ? null : values.get(0);
+    }
+
+    /**
+     * Set a header, replacing any existing values.
+     *
+     * @param name  the header name
+     * @param value the header value
+     */
+    public void setHeader(String name, String value) {
+        headers.put(name, Collections.singletonList(value));
+        modified = true;
+    }
+
+    /**
+     * Remove a header.
+     *
+     * @param name the header name
+     */
+    public void removeHeader(String name) {
+        if (headers.remove(name) != null) {
+            modified = true;
+        }
+    }
+
+    /**
+     * Get the UTF-8 encoded JSON body.
+     *
+     * @return the body, or {@code null} for requests without one
+     */
+    public byte[] getBody() {
+        return body;
+    }
+
+    /**
+     * Replace the body.
+     *
+     * @param body the new UTF-8 encoded JSON body
+     */
+    public void setBody(byte[] body) {
+        this.body = body;
+        modified = true;
+    }
+
+    /**
+     * Get a value stored by an interceptor for this exchange, e.g. a start time.
+     *
+     * @param name the attribute name
+     * @return the value, or {@code null} if absent
+     */
+    public Object getAttribute(String name) {
+        return attributes == null ? null : attributes.get(name);
+    }
+
+    /**
+     * Store a value for this exchange, visible to all interceptors in later callbacks.
+     *
+     * @param name  the attribute name
+     * @param value the value
+     */
+    public void setAttribute(String name, Object value) {
+        if (attributes == null) {
+            attributes = new HashMap<>();
+        }
+        attributes.put(name, value);
+    }
+
+    /**
+     * Get the request to send: the original if nothing changed, otherwise a copy with
+     * the new headers and body.
+     */
+    HttpRequest toHttpRequest(HttpRequest original) {
+        if (!modified) {
+            return original;
+        }
+        HttpRequest.Builder builder = HttpRequest.newBuilder(uri)
+                .method(method, body == null
+                        ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofByteArray(body))
+                .expectContinue(original.expectContinue());
+        original.timeout().ifPresent(builder::timeout);
+        original.version().ifPresent(builder::version);
+        headers.forEach((name, values) -> values.forEach(value -> builder.header(name, value)));
+        return builder.build();
+    }
+}
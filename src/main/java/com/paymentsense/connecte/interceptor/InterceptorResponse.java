@@ -0,0 +1,91 @@
+package com.paymentsense.connecte.interceptor;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Response seen by the {@link Interceptor} chain, either received from the API or
+ * produced by a short-circuiting interceptor.
+ */
+public final class InterceptorResponse {
+    private final int statusCode;
+    private final Map<String, List<String>> headers;
+    private final boolean shortCircuited;
+    private byte[] body;
+
+    InterceptorResponse(int statusCode, Map<String, List<String>> headers, byte[] body, boolean shortCircuited) {
+        this.statusCode = statusCode;
+        this.headers = headers;
+        this.body = body;
+        this.shortCircuited = shortCircuited;
+    }
+
+    /**
+     * Create a response that stops the chain without calling the API.
+     *
+     * @param statusCode the HTTP status, e.g. 200
+     * @param body       the UTF-8 encoded JSON body
+     * @return the response
+     */
+    public static InterceptorResponse of(int statusCode, byte[] body) {
+        return new InterceptorResponse(statusCode, Collections.emptyMap(), body, true);
+    }
+
+    /**
+     * Create a response that stops the chain without calling the API.
+     *
+     * @param statusCode the HTTP status, e.g. 200
+     * @param json       the JSON body
+     * @return the response
+     */
+    public static InterceptorResponse of(int statusCode, String json) {
+        return of(statusCode, json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Get the HTTP status.
+     *
+     * @return the status code
+     */
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    /**
+     * Get the response headers.
+     *
+     * @return the headers; empty for short-circuited responses
+     */
+    public Map<String, List<String>> getHeaders() {
+        return headers;
+    }
+
+    /**
+     * Get the raw body.
+     *
+     * @return the body
+     */
+    public byte[] getBody() {
+        return body;
+    }
+
+    /**
+     * Replace the body handed back to the client.
+     *
+     * @param body the new body
+     */
+    public void setBody(byte[] body) {
+        this.body = body;
+    }
+
+    /**
+     * Check whether an interceptor produced this response instead of the API.
+     *
+     * @return true if the network was skipped
+     */
+    public boolean isShortCircuited() {
+        return shortCircuited;
+    }
+}
@@ -0,0 +1,561 @@
+package com.paymentsense.connecte.journal;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32C;
+
+/**
+ * Write-ahead journal for cross-reference operations (refund, void, collection).
+ * <p>
+ * Before an operation is sent its intent is appended, and once its result is known an
+ * outcome record follows. An intent without an outcome is in doubt: the process died, or
+ * the call failed in a way that leaves open whether Connect-E executed it.
+ * {@link #getInDoubtOperations()} lists those, including ones recovered from the files
+ * of a previous run.
+ * </p>
+ * <p>
+ * The log is a sequence of pre-sized, memory-mapped segment files. An append encodes and
+ * checksums its record outside any lock, then copies it into the mapping under a short
+ * lock, so it costs microseconds; forcing to disk is batched by a background thread (see
+ * {@link JournalConfig}). A segment file is deleted once it and every older segment hold
+ * no unresolved intents.
+ * </p>
+ * <pre>{@code
+ * CrossReferenceJournal journal = CrossReferenceJournal.open(JournalConfig.builder()
+ *         .directory(Paths.get("/var/lib/payments/journal"))
+ *         .build());
+ * PaymentsenseClient client = PaymentsenseClient.builder()
+ *         .apiKey("...")
+ *         .journal(journal)
+ *         .build();
+ * client.recoverCrossReferencePayments(false);
+ * }</pre>
+ */
+public final class CrossReferenceJournal implements AutoCloseable {
+    private static final int MAGIC = 0x50534a31;
+    private static final int HEADER_BYTES = 8;
+    private static final int RECORD_OVERHEAD = 8;
+    private static final byte INTENT = 1;
+    private static final byte OUTCOME = 2;
+    private static final String FILE_PREFIX = "xref-journal-";
+    private static final String FILE_SUFFIX = ".log";
+
+    private final JournalConfig config;
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private final ArrayDeque<Segment> sealed = new ArrayDeque<>();
+    private final ConcurrentHashMap<Long, Operation> open = new ConcurrentHashMap<>();
+    private final AtomicLong nextOperationId = new AtomicLong(1);
+    private volatile Segment active;
+    private volatile long appended;
+    private volatile boolean closed;
+
+    private final ReentrantLock syncLock = new ReentrantLock();
+    private final Condition syncedCondition = syncLock.newCondition();
+    private final Thread syncThread;
+    private volatile long synced;
+    private final LongAdder syncs = new LongAdder();
+
+    private CrossReferenceJournal(JournalConfig config) throws IOException {
+        this.config = config;
+        Files.createDirectories(config.getDirectory());
+
+        long lastIndex = 0;
+        for (Path path : listSegments(config.getDirectory()).values()) {
+            Segment segment = new Segment(segmentIndex(path), path);
+            replay(segment);
+            sealed.addLast(segment);
+            lastIndex = segment.index;
+        }
+        this.active = createSegment(lastIndex + 1);
+        prune();
+
+        if (config.isSyncWrites() || !config.getSyncInterval().isZero()) {
+            this.syncThread = new Thread(this::syncLoop, "paymentsense-journal-sync");
+            this.syncThread.setDaemon(true);
+            this.syncThread.start();
+        } else {
+            this.syncThread = null;
+        }
+    }
+
+    /**
+     * Open the journal in the configured directory, recovering the operations left in
+     * doubt by earlier runs.
+     * <p>
+     * A record cut short by a crash is discarded; it can only be an intent whose request
+     * was never sent, or an outcome whose operation stays in doubt.
+     * </p>
+     *
+     * @param config the journal configuration
+     * @return the open journal
+     * @throws IOException              if the directory or a segment cannot be read or created
+     * @throws IllegalArgumentException if the configuration is invalid
+     */
+    public static CrossReferenceJournal open(JournalConfig config) throws IOException {
+        config.validate();
+        return new CrossReferenceJournal(config);
+    }
+
+    /**
+     * Record that an operation is about to be sent.
+     *
+     * @param paymentToken   the payment token the operation is sent for
+     * @param crossReference the cross-reference of the original payment
+     * @return the operation ID to pass to {@link #recordOutcome} or {@link #markInDoubt}
+     * @throws IOException if the record cannot be written
+     */
+    public long recordIntent(String paymentToken, String crossReference) throws IOException {
+        long operationId = nextOperationId.getAndIncrement();
+        long now = System.currentTimeMillis();
+        byte[] token = utf8(paymentToken);
+        byte[] reference = utf8(crossReference);
+
+        ByteBuffer payload = ByteBuffer.allocate(17 + stringSize(token) + stringSize(reference));
+        payload.put(INTENT).putLong(operationId).putLong(now);
+        putString(payload, token);
+        putString(payload, reference);
+        int checksum = checksum(payload);
+
+        Operation operation = new Operation(
+                new JournalEntry(operationId, paymentToken, crossReference, Instant.ofEpochMilli(now)));
+        long sequence;
+        appendLock.lock();
+        try {
+            Segment segment = append(payload, checksum);
+            operation.segment = segment;
+            segment.openIntents++;
+            open.put(operationId, operation);
+            sequence = ++appended;
+        } finally {
+            appendLock.unlock();
+        }
+        awaitSync(sequence);
+        return operationId;
+    }
+
+    /**
+     * Record how an operation was settled. Unknown or already settled operations are ignored.
+     *
+     * @param operationId the operation ID
+     * @param outcome     the outcome
+     * @param statusCode  the Connect-E status code, if known
+     * @throws IOException if the record cannot be written; the operation then stays open
+     */
+    public void recordOutcome(long operationId, JournalOutcome outcome, Integer statusCode) throws IOException {
+        Operation operation = open.get(operationId);
+        if (operation == null) {
+            return;
+        }
+
+        ByteBuffer payload = ByteBuffer.allocate(22);
+        payload.put(OUTCOME).putLong(operationId).putLong(System.currentTimeMillis())
+                .put((byte) outcome.getCode())
+                .putInt(statusCode == null ? Integer.MIN_VALUE : statusCode);
+        int checksum = checksum(payload);
+
+        long sequence;
+        appendLock.lock();
+        try {
+            append(payload, checksum);
+            if (open.remove(operationId, operation)) {
+                operation.segment.openIntents--;
+                prune();
+            }
+            sequence = ++appended;
+        } finally {
+            appendLock.unlock();
+        }
+        awaitSync(sequence);
+    }
+
+    /**
+     * Mark an operation whose call has ended without a known outcome, making it visible
+     * to {@link #getInDoubtOperations()}.
+     *
+     * @param operationId the operation ID
+     */
+    public void markInDoubt(long operationId) {
+        Operation operation = open.get(operationId);
+        if (operation != null) {
+            operation.inFlight.set(false);
+        }
+    }
+
+    /**
+     * Claim an in-doubt operation, e.g. to replay it, so that no one else recovers it
+     * concurrently. Call {@link #recordOutcome} or {@link #markInDoubt} when done.
+     *
+     * @param operationId the operation ID
+     * @return true if the operation was in doubt and is now claimed
+     */
+    public boolean claim(long operationId) {
+        Operation operation = open.get(operationId);
+        return operation != null && operation.inFlight.compareAndSet(false, true);
+    }
+
+    /**
+     * Get the operations without an outcome that are not currently being sent, oldest first.
+     *
+     * @return the in-doubt operations
+     */
+    public List<JournalEntry> getInDoubtOperations() {
+        List<JournalEntry> entries = new ArrayList<>();
+        for (Operation operation : open.values()) {
+            if (!operation.inFlight.get()) {
+                entries.add(operation.entry);
+            }
+        }
+        entries.sort(Comparator.comparingLong(JournalEntry::getOperationId));
+        return entries;
+    }
+
+    /**
+     * Get the number of operations without an outcome, including those being sent.
+     *
+     * @return the open operation count
+     */
+    public int getOpenCount() {
+        return open.size();
+    }
+
+    /**
+     * Get the number of times appended records were forced to disk.
+     *
+     * @return the sync count
+     */
+    public long getSyncCount() {
+        return syncs.sum();
+    }
+
+    /**
+     * Force outstanding records to disk and release the active segment. Open operations
+     * remain on disk for the next {@link #open}.
+     *
+     * @throws IOException if the final force or cleanup fails
+     */
+    @Override
+    public void close() throws IOException {
+        appendLock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            Segment last = active;
+            last.seal();
+            sealed.addLast(last);
+            prune();
+        } finally {
+            appendLock.unlock();
+        }
+
+        syncLock.lock();
+        try {
+            synced = appended;
+            syncedCondition.signalAll();
+        } finally {
+            syncLock.unlock();
+        }
+        if (syncThread != null) {
+            LockSupport.unpark(syncThread);
+        }
+    }
+
+    /**
+     * Copy a record into the active segment, rolling to a new segment if it does not fit.
+     * Must be called with the append lock held.
+     */
+    private Segment append(ByteBuffer payload, int checksum) throws IOException {
+        if (closed) {
+            throw new IOException("Journal is closed");
+        }
+        byte[] bytes = payload.array();
+        Segment segment = active;
+        if (segment.position + RECORD_OVERHEAD + bytes.length > config.getSegmentSize()) {
+            segment = roll();
+        }
+
+        MappedByteBuffer buffer = segment.buffer;
+        int position = segment.position;
+        buffer.putInt(position + 4, checksum);
+        buffer.position(position + RECORD_OVERHEAD);
+        buffer.put(bytes);
+        // The length goes in last: until it is set, readers see the end of the log here
+        buffer.putInt(position, bytes.length);
+        segment.position = position + RECORD_OVERHEAD + bytes.length;
+        return segment;
+    }
+
+    private static int checksum(ByteBuffer payload) {
+        CRC32C checksum = new CRC32C();
+        checksum.update(payload.array(), 0, payload.position());
+        return (int) checksum.getValue();
+    }
+
+    private Segment roll() throws IOException {
+        Segment previous = active;
+        Segment next = createSegment(previous.index + 1);
+        previous.seal();
+        sealed.addLast(previous);
+        active = next;
+        prune();
+        return next;
+    }
+
+    private Segment createSegment(long index) throws IOException {
+        Segment segment = new Segment(index, config.getDirectory().resolve(segmentFileName(index)));
+        segment.channel = FileChannel.open(segment.path,
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            segment.buffer = segment.channel.map(FileChannel.MapMode.READ_WRITE, 0, config.getSegmentSize());
+        } catch (IOException e) {
+            segment.channel.close();
+            Files.deleteIfExists(segment.path);
+            throw e;
+        }
+        segment.buffer.putInt(0, MAGIC);
+        segment.position = HEADER_BYTES;
+        return segment;
+    }
+
+    /**
+     * Delete leading segments without unresolved intents. Later segments are kept even if
+     * resolved, since they may hold the outcomes of intents in an older segment.
+     */
+    private void prune() {
+        while (!sealed.isEmpty() && sealed.peekFirst().openIntents == 0) {
+            try {
+                Files.deleteIfExists(sealed.peekFirst().path);
+            } catch (IOException e) {
+                // Retried on the next prune
+                return;
+            }
+            sealed.pollFirst();
+        }
+    }
+
+    /**
+     * Rebuild the open operations from a segment written by an earlier run.
+     */
+    private void replay(Segment segment) throws IOException {
+        try (FileChannel channel = FileChannel.open(segment.path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES) {
+                return;
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (buffer.getInt(0) != MAGIC) {
+                throw new IOException("Not a journal segment: " + segment.path);
+            }
+
+            int position = HEADER_BYTES;
+            CRC32C checksum = new CRC32C();
+            while (position + RECORD_OVERHEAD <= size) {
+                int length = buffer.getInt(position);
+                if (length <= 0 || position + RECORD_OVERHEAD + (long) length > size) {
+                    break;
+                }
+                ByteBuffer payload = buffer.duplicate();
+                payload.position(position + RECORD_OVERHEAD).limit(position + RECORD_OVERHEAD + length);
+                checksum.reset();
+                checksum.update(payload.duplicate());
+                if ((int) checksum.getValue() != buffer.getInt(position + 4)) {
+                    break;
+                }
+                apply(payload, segment);
+                position += RECORD_OVERHEAD + length;
+            }
+        }
+    }
+
+    private void apply(ByteBuffer payload, Segment segment) {
+        byte type = payload.get();
+        long operationId = payload.getLong();
+        long timestamp = payload.getLong();
+        if (operationId >= nextOperationId.get()) {
+            nextOperationId.set(operationId + 1);
+        }
+
+        if (type == INTENT) {
+            String paymentToken = getString(payload);
+            String crossReference = getString(payload);
+            Operation operation = new Operation(new JournalEntry(
+                    operationId, paymentToken, crossReference, Instant.ofEpochMilli(timestamp)));
+            operation.segment = segment;
+            operation.inFlight.set(false);
+            segment.openIntents++;
+            open.put(operationId, operation);
+        } else if (type == OUTCOME) {
+            Operation operation = open.remove(operationId);
+            if (operation != null) {
+                operation.segment.openIntents--;
+            }
+        }
+    }
+
+    /**
+     * Group commit: force everything appended since the last pass with one call, then
+     * release the appends waiting for it.
+     */
+    private void syncLoop() {
+        long intervalNanos = config.getSyncInterval().toNanos();
+        while (!closed) {
+            long target = appended;
+            if (target == synced) {
+                if (intervalNanos > 0) {
+                    LockSupport.parkNanos(this, intervalNanos);
+                } else {
+                    LockSupport.park(this);
+                }
+                continue;
+            }
+
+            // Records in segments rolled since then were forced when their segment was sealed
+            Segment segment = active;
+            segment.buffer.force();
+            syncs.increment();
+
+            syncLock.lock();
+            try {
+                synced = target;
+                syncedCondition.signalAll();
+            } finally {
+                syncLock.unlock();
+            }
+            if (!config.isSyncWrites() && intervalNanos > 0) {
+                LockSupport.parkNanos(this, intervalNanos);
+            }
+        }
+    }
+
+    private void awaitSync(long sequence) throws IOException {
+        if (!config.isSyncWrites()) {
+            return;
+        }
+        LockSupport.unpark(syncThread);
+        syncLock.lock();
+        try {
+            while (synced < sequence && !closed) {
+                syncedCondition.await();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the journal to sync");
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    private static TreeMap<Long, Path> listSegments(Path directory) throws IOException {
+        TreeMap<Long, Path> segments = new TreeMap<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, FILE_PREFIX + "*" + FILE_SUFFIX)) {
+            for (Path path : files) {
+                segments.put(segmentIndex(path), path);
+            }
+        }
+        return segments;
+    }
+
+    private static String segmentFileName(long index) {
+        return String.format("%s%020d%s", FILE_PREFIX, index, FILE_SUFFIX);
+    }
+
+    private static long segmentIndex(Path path) throws IOException {
+        String name = path.getFileName().toString();
+        try {
+            return Long.parseLong(name.substring(FILE_PREFIX.length(), name.length() - FILE_SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            throw new IOException("Unexpected file in journal directory: " + path, e);
+        }
+    }
+
+    private static byte[] utf8(String value) {
+        if (value == null) {
+            return null;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Journal field too long: " + bytes.length + " bytes");
+        }
+        return bytes;
+    }
+
+    private static int stringSize(byte[] value) {
+        return 2 + (value == null ? 0 : value.length);
+    }
+
+    private static void putString(ByteBuffer buffer, byte[] value) {
+        if (value == null) {
+            buffer.putShort((short) -1);
+        } else {
+            buffer.putShort((short) value.length).put(value);
+        }
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        int length = buffer.getShort();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * One segment file. Only the active segment has a channel and mapping.
+     */
+    private static final class Segment {
+        private final long index;
+        private final Path path;
+        private FileChannel channel;
+        private MappedByteBuffer buffer;
+        private int position;
+
+        /**
+         * Intents in this segment without an outcome; guarded by the append lock
+         */
+        private int openIntents;
+
+        Segment(long index, Path path) {
+            this.index = index;
+            this.path = path;
+        }
+
+        void seal() throws IOException {
+            buffer.force();
+            channel.close();
+        }
+    }
+
+    private static final class Operation {
+        private final JournalEntry entry;
+        private final AtomicBoolean inFlight = new AtomicBoolean(true);
+        private Segment segment;
+
+        Operation(JournalEntry entry) {
+            this.entry = entry;
+        }
+    }
+}
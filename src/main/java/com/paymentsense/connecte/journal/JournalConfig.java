@@ -0,0 +1,61 @@
+package com.paymentsense.connecte.journal;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Configuration for {@link CrossReferenceJournal}.
+ * <p>
+ * Records are written into memory-mapped segment files, so they survive a JVM crash as
+ * soon as the append returns. Surviving an operating system crash or power loss also
+ * requires the pages to be forced to disk; a background thread does that for all
+ * records appended since its last pass (group commit), every {@link #syncInterval} or,
+ * with {@link #syncWrites}, as soon as an append is waiting for it.
+ * </p>
+ */
+@Data
+@Builder
+public class JournalConfig {
+    /**
+     * Directory holding the segment files; created if missing, and used by one journal at a time
+     */
+    private final Path directory;
+
+    /**
+     * Size of each segment file in bytes
+     */
+    @Builder.Default
+    private final int segmentSize = 16 * 1024 * 1024;
+
+    /**
+     * How often appended records are forced to disk (zero to only force on demand)
+     */
+    @Builder.Default
+    private final Duration syncInterval = Duration.ofMillis(100);
+
+    /**
+     * Whether each append waits until its record has been forced to disk
+     */
+    @Builder.Default
+    private final boolean syncWrites = false;
+
+    /**
+     * Validate the configuration.
+     *
+     * @throws IllegalArgumentException if the configuration is invalid
+     */
+    public void validate() {
+        if (directory == null) {
+            throw new IllegalArgumentException("Journal directory is required");
+        }
+        if (segmentSize < 64 * 1024 || segmentSize > (1 << 30)) {
+            throw new IllegalArgumentException("Journal segment size must be between 64 KiB and 1 GiB");
+        }
+        if (syncInterval == null || syncInterval.isNegative()) {
+            throw new IllegalArgumentException("Journal sync interval cannot be negative");
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.paymentsense.connecte.journal;
+
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.Instant;
+
+/**
+ * A cross-reference operation recorded in the journal whose outcome is not yet known.
+ * <p>
+ * The card verification value of the original request is never journaled.
+ * </p>
+ */
+@Getter
+@ToString
+public final class JournalEntry {
+    /**
+     * Journal-assigned operation ID
+     */
+    private final long operationId;
+
+    /**
+     * Payment token the operation was sent for
+     */
+    private final String paymentToken;
+
+    /**
+     * Cross-reference of the original payment
+     */
+    private final String crossReference;
+
+    /**
+     * When the operation was journaled
+     */
+    private final Instant createdAt;
+
+    JournalEntry(long operationId, String paymentToken, String crossReference, Instant createdAt) {
+        this.operationId = operationId;
+        this.paymentToken = paymentToken;
+        this.crossReference = crossReference;
+        this.createdAt = createdAt;
+    }
+}
@@ -0,0 +1,35 @@
+package com.paymentsense.connecte.journal;
+
+import lombok.Getter;
+
+/**
+ * How a journaled cross-reference operation was settled.
+ */
+@Getter
+public enum JournalOutcome {
+    /**
+     * Connect-E answered the operation
+     */
+    COMPLETED(1),
+
+    /**
+     * Connect-E refused the request (4xx), so the operation did not run
+     */
+    REJECTED(2),
+
+    /**
+     * The request was never sent, e.g. because a circuit breaker or rate limit stopped it
+     */
+    NOT_SENT(3),
+
+    /**
+     * The outcome was established after the fact, by recovery or by hand
+     */
+    RESOLVED(4);
+
+    private final int code;
+
+    JournalOutcome(int code) {
+        this.code = code;
+    }
+}
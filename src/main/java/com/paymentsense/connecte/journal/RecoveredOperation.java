@@ -0,0 +1,76 @@
+package com.paymentsense.connecte.journal;
+
+import com.paymentsense.connecte.model.CrossReferencePaymentResponse;
+import com.paymentsense.connecte.model.PaymentInfo;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Result of recovering one in-doubt cross-reference operation.
+ */
+@Getter
+@ToString
+public final class RecoveredOperation {
+    /**
+     * What recovery did with an operation.
+     */
+    public enum Action {
+        /**
+         * The payment was already final; the operation has been marked resolved
+         */
+        RESOLVED,
+
+        /**
+         * The payment showed no sign of the operation, so it was sent again
+         */
+        REPLAYED,
+
+        /**
+         * The outcome could not be established; the operation is still in doubt
+         */
+        UNRESOLVED
+    }
+
+    /**
+     * The journaled operation
+     */
+    private final JournalEntry entry;
+
+    /**
+     * What recovery did
+     */
+    private final Action action;
+
+    /**
+     * Payment status seen during recovery, if it could be fetched
+     */
+    private final PaymentInfo paymentInfo;
+
+    /**
+     * Response to the replayed operation, if it was replayed
+     */
+    private final CrossReferencePaymentResponse response;
+
+    /**
+     * Failure that left the operation unresolved, if any
+     */
+    private final Exception error;
+
+    /**
+     * Create a recovery result.
+     *
+     * @param entry       the journaled operation
+     * @param action      what recovery did
+     * @param paymentInfo the payment status seen, or null
+     * @param response    the replay response, or null
+     * @param error       the failure, or null
+     */
+    public RecoveredOperation(JournalEntry entry, Action action, PaymentInfo paymentInfo,
+                              CrossReferencePaymentResponse response, Exception error) {
+        this.entry = entry;
+        this.action = action;
+        this.paymentInfo = paymentInfo;
+        this.response = response;
+        this.error = error;
+    }
+}
@@ -0,0 +1,97 @@
+package com.paymentsense.connecte.metrics;
+
+import com.paymentsense.connecte.service.Endpoint;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Point-in-time snapshot of the metrics recorded for one endpoint.
+ */
+@Getter
+@ToString
+public final class EndpointMetrics {
+    /**
+     * The endpoint
+     */
+    private final Endpoint endpoint;
+
+    /**
+     * HTTP exchanges completed
+     */
+    private final long requests;
+
+    /**
+     * Exchanges that failed (non-200 status or no response)
+     */
+    private final long errors;
+
+    /**
+     * Request body bytes sent
+     */
+    private final long bytesSent;
+
+    /**
+     * Response body bytes received
+     */
+    private final long bytesReceived;
+
+    /**
+     * Calls that sent a hedge request
+     */
+    private final long hedges;
+
+    /**
+     * Hedged calls answered by the hedge rather than the original request
+     */
+    private final long hedgesWon;
+
+    /**
+     * Median latency in nanoseconds
+     */
+    private final long p50Nanos;
+
+    /**
+     * 99th percentile latency in nanoseconds
+     */
+    private final long p99Nanos;
+
+    /**
+     * 99.9th percentile latency in nanoseconds
+     */
+    private final long p999Nanos;
+
+    /**
+     * Highest latency in nanoseconds
+     */
+    private final long maxNanos;
+
+    /**
+     * Mean latency in nanoseconds
+     */
+    private final double meanNanos;
+
+    EndpointMetrics(Endpoint endpoint, long requests, long errors, long bytesSent, long bytesReceived,
+                    long hedges, long hedgesWon, LatencyHistogram latency) {
+        this.endpoint = endpoint;
+        this.requests = requests;
+        this.errors = errors;
+        this.bytesSent = bytesSent;
+        this.bytesReceived = bytesReceived;
+        this.hedges = hedges;
+        this.hedgesWon = hedgesWon;
+        this.p50Nanos = latency.getValueAtPercentile(50.0);
+        this.p99Nanos = latency.getValueAtPercentile(99.0);
+        this.p999Nanos = latency.getValueAtPercentile(99.9);
+        this.maxNanos = latency.getMaxNanos();
+        this.meanNanos = latency.getMeanNanos();
+    }
+
+    /**
+     * Get the fraction of exchanges that failed.
+     *
+     * @return the error rate between 0 and 1
+     */
+    public double getErrorRate() {
+        return requests == 0 ? 0 : (double) errors / requests;
+    }
+}
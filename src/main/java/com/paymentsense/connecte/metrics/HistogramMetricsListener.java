@@ -0,0 +1,90 @@
+package com.paymentsense.connecte.metrics;
+
+import com.paymentsense.connecte.service.Endpoint;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Built-in {@link MetricsListener} keeping a latency histogram and counters per endpoint.
+ * <p>
+ * All state is allocated when the listener is created; recording is lock-free and
+ * allocation-free. Values accumulate for the lifetime of the listener.
+ * </p>
+ * <pre>{@code
+ * HistogramMetricsListener metrics = new HistogramMetricsListener();
+ * PaymentsenseClient client = PaymentsenseClient.builder()
+ *         .apiKey("...")
+ *         .metricsListener(metrics)
+ *         .build();
+ * ...
+ * long p99 = metrics.getMetrics(Endpoint.PAYMENTS).getP99Nanos();
+ * }</pre>
+ */
+public final class HistogramMetricsListener implements MetricsListener {
+    private final Map<Endpoint, Recorder> recorders = new EnumMap<>(Endpoint.class);
+
+    /**
+     * Create a listener with empty histograms for every endpoint.
+     */
+    public HistogramMetricsListener() {
+        for (Endpoint endpoint : Endpoint.values()) {
+            recorders.put(endpoint, new Recorder());
+        }
+    }
+
+    @Override
+    public void onRequestComplete(Endpoint endpoint, int statusCode, Class<? extends Throwable> errorType,
+                                  long bytesSent, long bytesReceived, long latencyNanos) {
+        Recorder recorder = recorders.get(endpoint);
+        recorder.latency.record(latencyNanos);
+        if (errorType != null) {
+            recorder.errors.increment();
+        }
+        recorder.bytesSent.add(bytesSent);
+        recorder.bytesReceived.add(bytesReceived);
+    }
+
+    @Override
+    public void onHedge(Endpoint endpoint, boolean won) {
+        Recorder recorder = recorders.get(endpoint);
+        recorder.hedges.increment();
+        if (won) {
+            recorder.hedgesWon.increment();
+        }
+    }
+
+    /**
+     * Get a snapshot of the metrics recorded for an endpoint.
+     *
+     * @param endpoint the endpoint
+     * @return the metrics snapshot
+     */
+    public EndpointMetrics getMetrics(Endpoint endpoint) {
+        Recorder recorder = recorders.get(endpoint);
+        return new EndpointMetrics(endpoint, recorder.latency.getCount(), recorder.errors.sum(),
+                recorder.bytesSent.sum(), recorder.bytesReceived.sum(), recorder.hedges.sum(),
+                recorder.hedgesWon.sum(), recorder.latency);
+    }
+
+    /**
+     * Get the latency histogram of an endpoint, for percentiles beyond those in
+     * {@link EndpointMetrics}.
+     *
+     * @param endpoint the endpoint
+     * @return the live histogram
+     */
+    public LatencyHistogram getLatencyHistogram(Endpoint endpoint) {
+        return recorders.get(endpoint).latency;
+    }
+
+    private static final class Recorder {
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder bytesSent = new LongAdder();
+        private final LongAdder bytesReceived = new LongAdder();
+        private final LongAdder hedges = new LongAdder();
+        private final LongAdder hedgesWon = new LongAdder();
+    }
+}
@@ -0,0 +1,48 @@
+package com.paymentsense.connecte.metrics;
+
+import com.paymentsense.connecte.service.Endpoint;
+
+/**
+ * Receives one callback per HTTP exchange made by the client.
+ * <p>
+ * Every attempt is reported, so a call that is retried twice produces three callbacks.
+ * Calls rejected before reaching the network (open circuit breaker, rate limit) and
+ * cancelled exchanges, such as the losing request of a hedged lookup, are not reported.
+ * Callbacks run on the thread completing the exchange and must be fast and non-blocking;
+ * arguments are primitives so reporting allocates nothing.
+ * </p>
+ */
+@FunctionalInterface
+public interface MetricsListener {
+    /**
+     * Listener that ignores every callback; the client skips measurement entirely when
+     * this listener is configured.
+     */
+    MetricsListener NOOP = (endpoint, statusCode, errorType, bytesSent, bytesReceived, latencyNanos) -> {
+    };
+
+    /**
+     * Called when an HTTP exchange completes.
+     *
+     * @param endpoint      the endpoint called
+     * @param statusCode    the HTTP status, or -1 if no response was received
+     * @param errorType     the failure type, or {@code null} on success; for network
+     *                      failures this is the underlying I/O exception type (e.g.
+     *                      {@code HttpTimeoutException})
+     * @param bytesSent     the request body size in bytes
+     * @param bytesReceived the response body size in bytes
+     * @param latencyNanos  the time from sending the request to receiving the full body
+     */
+    void onRequestComplete(Endpoint endpoint, int statusCode, Class<? extends Throwable> errorType,
+                           long bytesSent, long bytesReceived, long latencyNanos);
+
+    /**
+     * Called when a call that sent a hedge request completes. The hedge's own exchange is
+     * reported through {@link #onRequestComplete} like any other.
+     *
+     * @param endpoint the endpoint called
+     * @param won      true if the hedge answered before the original request
+     */
+    default void onHedge(Endpoint endpoint, boolean won) {
+    }
+}
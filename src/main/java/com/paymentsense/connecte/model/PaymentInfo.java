@@ -98,4 +98,17 @@ public class PaymentInfo {
     public boolean isSuccess() {
         return statusCode != null && statusCode == 0;
     }
+
+    /**
+     * Check if the payment has reached a final state.
+     * <p>
+     * A missing status code, or 3 (authorizing, e.g. during 3-D Secure), means the
+     * payment is still in progress; any other status code is final.
+     * </p>
+     *
+     * @return true if the payment status will no longer change
+     */
+    public boolean isTerminal() {
+        return statusCode != null && statusCode != 3;
+    }
 }
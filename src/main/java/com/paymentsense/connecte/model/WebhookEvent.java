@@ -0,0 +1,99 @@
+package com.paymentsense.connecte.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Payment status notification posted by Connect-E to the configured webhook URL.
+ *
+ * @author Paymentsense SDK Team
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class WebhookEvent {
+    /**
+     * Payment ID (payment token ID) the notification is about
+     */
+    @JsonProperty("id")
+    private String id;
+
+    /**
+     * Status code (0 = success, 3 = still authorizing, other values indicate errors)
+     */
+    @JsonProperty("statusCode")
+    private Integer statusCode;
+
+    /**
+     * Human-readable message about the transaction
+     */
+    @JsonProperty("message")
+    private String message;
+
+    /**
+     * Cross-reference ID for the transaction (used for refunds/voids)
+     */
+    @JsonProperty("crossReference")
+    private String crossReference;
+
+    /**
+     * Authorization code from the payment gateway
+     */
+    @JsonProperty("authCode")
+    private String authCode;
+
+    /**
+     * Transaction date and time in ISO 8601 format
+     */
+    @JsonProperty("transactionDateTime")
+    private String transactionDateTime;
+
+    /**
+     * Merchant order ID given when the payment token was created
+     */
+    @JsonProperty("orderId")
+    private String orderId;
+
+    /**
+     * Amount in minor units (e.g., pence)
+     */
+    @JsonProperty("amount")
+    private String amount;
+
+    /**
+     * ISO 4217 numeric currency code
+     */
+    @JsonProperty("currencyCode")
+    private String currencyCode;
+
+    /**
+     * Transaction type (e.g., SALE, REFUND); kept as text so unknown types still parse
+     */
+    @JsonProperty("transactionType")
+    private String transactionType;
+
+    /**
+     * Check if the notification reports a successful payment.
+     *
+     * @return true if statusCode is 0, false otherwise
+     */
+    public boolean isSuccess() {
+        return statusCode != null && statusCode == 0;
+    }
+
+    /**
+     * Check if the notification reports a final state.
+     *
+     * @return true if the payment status will no longer change
+     * @see PaymentInfo#isTerminal()
+     */
+    public boolean isTerminal() {
+        return statusCode != null && statusCode != 3;
+    }
+}
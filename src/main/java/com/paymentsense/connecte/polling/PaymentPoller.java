@@ -0,0 +1,252 @@
+package com.paymentsense.connecte.polling;
+
+import com.paymentsense.connecte.exception.AuthenticationException;
+import com.paymentsense.connecte.exception.PaymentsenseException;
+import com.paymentsense.connecte.exception.PollingTimeoutException;
+import com.paymentsense.connecte.model.PaymentInfo;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Polls many pending payments until they reach a final state, on one shared timer wheel.
+ * <p>
+ * Each tracked payment costs one small object; no thread waits for it. The wheel thread
+ * wakes once per tick, sends the polls that are due as non-blocking requests, and
+ * re-schedules each payment with its own growing interval until the payment is final
+ * ({@link PaymentInfo#isTerminal()}), its deadline passes, or its future is cancelled.
+ * Authentication failures end polling at once; other failures are retried with the
+ * same backoff until the deadline.
+ * </p>
+ * <p>
+ * One poller can serve several clients, e.g. the tenants of a registry, by passing each
+ * poll the fetcher of the client it belongs to.
+ * </p>
+ */
+public final class PaymentPoller {
+    private final PollingConfig config;
+    private final Function<String, CompletableFuture<PaymentInfo>> fetcher;
+    private final TimerWheel<Poll> wheel;
+    private final long tickNanos;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile boolean closed;
+
+    /**
+     * Create a poller with no default fetcher and start its timer thread. Every poll must
+     * then be given its own fetcher.
+     *
+     * @param config the polling configuration
+     */
+    public PaymentPoller(PollingConfig config) {
+        this(config, null);
+    }
+
+    /**
+     * Create a poller and start its timer thread.
+     *
+     * @param config  the polling configuration
+     * @param fetcher fetches the current state of a payment without blocking
+     */
+    public PaymentPoller(PollingConfig config, Function<String, CompletableFuture<PaymentInfo>> fetcher) {
+        config.validate();
+        this.config = config;
+        this.fetcher = fetcher;
+        this.tickNanos = config.getTickDuration().toNanos();
+        this.wheel = new TimerWheel<>(tickNanos, config.getWheelSize(), "paymentsense-poller", this::dispatch);
+    }
+
+    /**
+     * Poll a payment until it is final or the default timeout passes.
+     *
+     * @param paymentId the payment ID
+     * @return a future completing with the final payment information, or exceptionally
+     * with a {@link PollingTimeoutException} or the {@link PaymentsenseException} that
+     * ended polling
+     */
+    public CompletableFuture<PaymentInfo> poll(String paymentId) {
+        return poll(paymentId, config.getDefaultTimeout());
+    }
+
+    /**
+     * Poll a payment until it is final or the timeout passes. Cancelling the returned
+     * future stops polling the payment.
+     *
+     * @param paymentId the payment ID
+     * @param timeout   how long to keep polling
+     * @return a future completing with the final payment information, or exceptionally
+     * with a {@link PollingTimeoutException} or the {@link PaymentsenseException} that
+     * ended polling
+     */
+    public CompletableFuture<PaymentInfo> poll(String paymentId, Duration timeout) {
+        if (fetcher == null) {
+            throw new IllegalStateException("Poller has no default fetcher");
+        }
+        return poll(paymentId, timeout, fetcher);
+    }
+
+    /**
+     * Poll a payment with the given fetcher until it is final or the timeout passes.
+     * Cancelling the returned future stops polling the payment.
+     *
+     * @param paymentId the payment ID
+     * @param timeout   how long to keep polling
+     * @param fetcher   fetches the current state of the payment without blocking
+     * @return a future completing with the final payment information, or exceptionally
+     * with a {@link PollingTimeoutException} or the {@link PaymentsenseException} that
+     * ended polling
+     */
+    public CompletableFuture<PaymentInfo> poll(String paymentId, Duration timeout,
+                                               Function<String, CompletableFuture<PaymentInfo>> fetcher) {
+        if (fetcher == null) {
+            throw new IllegalArgumentException("Fetcher is required");
+        }
+        if (paymentId == null || paymentId.isEmpty()) {
+            throw new IllegalArgumentException("Payment ID is required");
+        }
+        if (timeout == null || timeout.isNegative() || timeout.isZero()) {
+            throw new IllegalArgumentException("Polling timeout must be positive");
+        }
+        if (closed) {
+            return CompletableFuture.failedFuture(new CancellationException("Poller is closed"));
+        }
+
+        long now = System.nanoTime();
+        Poll poll = new Poll(paymentId, fetcher, now + timeout.toNanos(), config.getInitialInterval().toNanos());
+        schedule(poll, now);
+        return poll.future;
+    }
+
+    /**
+     * Get the number of payments waiting for their next poll.
+     *
+     * @return the number of scheduled polls
+     */
+    public int getPendingCount() {
+        return wheel.pendingCount();
+    }
+
+    /**
+     * Get the number of polls currently in flight.
+     *
+     * @return the number of outstanding requests
+     */
+    public int getInFlightCount() {
+        return inFlight.get();
+    }
+
+    /**
+     * Stop the timer thread and cancel every outstanding poll.
+     */
+    public void close() {
+        closed = true;
+        for (Poll poll : wheel.stop()) {
+            poll.future.cancel(false);
+        }
+    }
+
+    /**
+     * Called by the wheel thread with the polls due this tick.
+     */
+    private void dispatch(List<Poll> due) {
+        long now = System.nanoTime();
+        for (Poll poll : due) {
+            if (poll.future.isDone()) {
+                continue;
+            }
+            if (now - poll.deadlineNanos >= 0) {
+                poll.future.completeExceptionally(new PollingTimeoutException(poll.paymentId, poll.last));
+                continue;
+            }
+            if (inFlight.get() >= config.getMaxInFlight()) {
+                wheel.schedule(poll, now + tickNanos);
+                continue;
+            }
+            send(poll);
+        }
+    }
+
+    private void send(Poll poll) {
+        inFlight.incrementAndGet();
+        CompletableFuture<PaymentInfo> request;
+        try {
+            request = poll.fetcher.apply(poll.paymentId);
+        } catch (RuntimeException e) {
+            inFlight.decrementAndGet();
+            poll.future.completeExceptionally(e);
+            return;
+        }
+        request.whenComplete((info, error) -> {
+            inFlight.decrementAndGet();
+            onResult(poll, info, error);
+        });
+    }
+
+    private void onResult(Poll poll, PaymentInfo info, Throwable error) {
+        if (poll.future.isDone()) {
+            return;
+        }
+        if (error == null) {
+            if (info != null && info.isTerminal()) {
+                poll.future.complete(info);
+                return;
+            }
+            poll.last = info;
+        } else {
+            Throwable cause = error instanceof CompletionException && error.getCause() != null
+                    ? error.getCause() : error;
+            if (cause instanceof AuthenticationException || !(cause instanceof PaymentsenseException)) {
+                poll.future.completeExceptionally(cause);
+                return;
+            }
+        }
+
+        long now = System.nanoTime();
+        poll.intervalNanos = Math.min(config.getMaxInterval().toNanos(),
+                (long) (poll.intervalNanos * config.getMultiplier()));
+        schedule(poll, now);
+    }
+
+    /**
+     * Schedule the next poll after the current interval, with jitter, but never past the
+     * deadline.
+     */
+    private void schedule(Poll poll, long now) {
+        if (closed) {
+            poll.future.cancel(false);
+            return;
+        }
+        long delay = poll.intervalNanos;
+        double jitter = config.getJitter();
+        if (jitter > 0 && delay > 0) {
+            delay += (long) (delay * jitter * (ThreadLocalRandom.current().nextDouble() * 2 - 1));
+        }
+        wheel.schedule(poll, Math.min(now + delay, poll.deadlineNanos));
+    }
+
+    /**
+     * Polling state of one payment. Handed between the wheel thread and completion
+     * threads through the wheel's queue, so it is only touched by one thread at a time.
+     */
+    private static final class Poll {
+        private final String paymentId;
+        private final Function<String, CompletableFuture<PaymentInfo>> fetcher;
+        private final long deadlineNanos;
+        private final CompletableFuture<PaymentInfo> future = new CompletableFuture<>();
+        private long intervalNanos;
+        private PaymentInfo last;
+
+        Poll(String paymentId, Function<String, CompletableFuture<PaymentInfo>> fetcher, long deadlineNanos,
+             long intervalNanos) {
+            this.paymentId = paymentId;
+            this.fetcher = fetcher;
+            this.deadlineNanos = deadlineNanos;
+            this.intervalNanos = intervalNanos;
+        }
+    }
+}
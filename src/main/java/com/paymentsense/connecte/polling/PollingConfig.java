@@ -0,0 +1,99 @@
+package com.paymentsense.connecte.polling;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.Duration;
+
+/**
+ * Configuration for {@link PaymentPoller}.
+ * <p>
+ * Each payment starts polling after {@link #initialInterval}; the interval then grows by
+ * {@link #multiplier} after every non-final answer, up to {@link #maxInterval}. Wake-ups
+ * are rounded to {@link #tickDuration} so that polls due at about the same time are sent
+ * together.
+ * </p>
+ */
+@Data
+@Builder
+public class PollingConfig {
+    /**
+     * Delay before the first poll of a payment
+     */
+    @Builder.Default
+    private final Duration initialInterval = Duration.ofMillis(500);
+
+    /**
+     * Upper bound for the delay between polls of a payment
+     */
+    @Builder.Default
+    private final Duration maxInterval = Duration.ofSeconds(10);
+
+    /**
+     * Factor applied to the delay after each non-final answer
+     */
+    @Builder.Default
+    private final double multiplier = 1.5;
+
+    /**
+     * Random spread applied to each delay, as a fraction of it (0 disables jitter)
+     */
+    @Builder.Default
+    private final double jitter = 0.2;
+
+    /**
+     * How long to poll a payment when the caller does not give a timeout
+     */
+    @Builder.Default
+    private final Duration defaultTimeout = Duration.ofMinutes(5);
+
+    /**
+     * Resolution of the timer wheel
+     */
+    @Builder.Default
+    private final Duration tickDuration = Duration.ofMillis(100);
+
+    /**
+     * Number of slots in the timer wheel (rounded up to a power of two)
+     */
+    @Builder.Default
+    private final int wheelSize = 512;
+
+    /**
+     * Maximum number of polls in flight at once; further due polls wait a tick
+     */
+    @Builder.Default
+    private final int maxInFlight = 256;
+
+    /**
+     * Validate the configuration.
+     *
+     * @throws IllegalArgumentException if the configuration is invalid
+     */
+    public void validate() {
+        if (initialInterval == null || initialInterval.isNegative()) {
+            throw new IllegalArgumentException("Initial polling interval cannot be negative");
+        }
+        if (maxInterval == null || maxInterval.compareTo(initialInterval) < 0) {
+            throw new IllegalArgumentException("Max polling interval must be at least the initial interval");
+        }
+        if (!(multiplier >= 1.0)) {
+            throw new IllegalArgumentException("Polling multiplier must be at least 1");
+        }
+        if (!(jitter >= 0.0 && jitter < 1.0)) {
+            throw new IllegalArgumentException("Polling jitter must be between 0 (inclusive) and 1 (exclusive)");
+        }
+        if (defaultTimeout == null || defaultTimeout.isNegative() || defaultTimeout.isZero()) {
+            throw new IllegalArgumentException("Default polling timeout must be positive");
+        }
+        if (tickDuration == null || tickDuration.toMillis() < 1) {
+            throw new IllegalArgumentException("Tick duration must be at least 1 millisecond");
+        }
+        if (wheelSize < 1 || wheelSize > (1 << 20)) {
+            throw new IllegalArgumentException("Wheel size must be between 1 and 1048576");
+        }
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("Max in-flight polls must be at least 1");
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.paymentsense.connecte.polling;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Hashed timer wheel driven by a single thread.
+ * <p>
+ * Any thread may {@link #schedule} an item; new items go through a lock-free queue and
+ * are placed in their slot by the wheel thread, which owns the slots exclusively. Each
+ * tick, every item due in the current slot is collected and handed to the consumer in
+ * one batch. When nothing is scheduled the thread parks until the next item arrives.
+ * </p>
+ *
+ * @param <T> the type of scheduled items
+ */
+final class TimerWheel<T> {
+    private final long tickNanos;
+    private final int mask;
+    private final Node<T>[] slots;
+    private final ConcurrentLinkedQueue<Node<T>> incoming = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final Consumer<List<T>> consumer;
+    private final Thread thread;
+    private final long startNanos;
+    private volatile boolean running = true;
+    private long tick;
+
+    TimerWheel(long tickNanos, int wheelSize, String threadName, Consumer<List<T>> consumer) {
+        this.tickNanos = tickNanos;
+        int size = Integer.highestOneBit(Math.max(1, wheelSize - 1)) << 1;
+        this.mask = size - 1;
+        @SuppressWarnings("unchecked")
+        Node<T>[] slots = (Node<T>[]) new Node<?>[size];
+        this.slots = slots;
+        this.consumer = consumer;
+        this.startNanos = System.nanoTime();
+        this.thread = new Thread(this::run, threadName);
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * Schedule an item.
+     *
+     * @param item          the item
+     * @param deadlineNanos the {@link System#nanoTime()} at which the item is due
+     */
+    void schedule(T item, long deadlineNanos) {
+        incoming.add(new Node<>(item, deadlineNanos));
+        if (pending.getAndIncrement() == 0) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    /**
+     * Get the number of scheduled items not yet handed to the consumer.
+     *
+     * @return the pending count
+     */
+    int pendingCount() {
+        return pending.get();
+    }
+
+    /**
+     * Stop the wheel thread and return every item not yet handed to the consumer.
+     *
+     * @return the unfired items
+     */
+    List<T> stop() {
+        running = false;
+        LockSupport.unpark(thread);
+        try {
+            thread.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        List<T> unfired = new ArrayList<>();
+        for (int i = 0; i < slots.length; i++) {
+            for (Node<T> node = slots[i]; node != null; node = node.next) {
+                unfired.add(node.item);
+            }
+            slots[i] = null;
+        }
+        for (Node<T> node; (node = incoming.poll()) != null; ) {
+            unfired.add(node.item);
+        }
+        return unfired;
+    }
+
+    private void run() {
+        while (running) {
+            if (pending.get() == 0) {
+                LockSupport.park(this);
+                // Skip the ticks that passed while idle; no slot holds anything
+                tick = Math.max(tick, (System.nanoTime() - startNanos) / tickNanos);
+                continue;
+            }
+
+            long tickDeadline = startNanos + (tick + 1) * tickNanos;
+            long waitNanos;
+            while (running && (waitNanos = tickDeadline - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(this, waitNanos);
+            }
+            if (!running) {
+                return;
+            }
+
+            transferIncoming();
+            List<T> due = expireSlot((int) (tick & mask));
+            tick++;
+            if (!due.isEmpty()) {
+                pending.addAndGet(-due.size());
+                try {
+                    consumer.accept(due);
+                } catch (RuntimeException e) {
+                    // A failing consumer must not stop the wheel
+                }
+            }
+        }
+    }
+
+    /**
+     * Move newly scheduled items into their slots.
+     */
+    private void transferIncoming() {
+        for (Node<T> node; (node = incoming.poll()) != null; ) {
+            long dueTick = Math.max(tick, (node.deadlineNanos - startNanos + tickNanos - 1) / tickNanos - 1);
+            node.rounds = (dueTick - tick) / slots.length;
+            int index = (int) (dueTick & mask);
+            node.next = slots[index];
+            slots[index] = node;
+        }
+    }
+
+    /**
+     * Remove the items of a slot whose last round has come.
+     */
+    private List<T> expireSlot(int index) {
+        List<T> due = new ArrayList<>();
+        Node<T> previous = null;
+        Node<T> node = slots[index];
+        while (node != null) {
+            Node<T> next = node.next;
+            if (node.rounds <= 0) {
+                due.add(node.item);
+                if (previous == null) {
+                    slots[index] = next;
+                } else {
+                    previous.next = next;
+                }
+            } else {
+                node.rounds--;
+                previous = node;
+            }
+            node = next;
+        }
+        return due;
+    }
+
+    private static final class Node<T> {
+        private final T item;
+        private final long deadlineNanos;
+        private long rounds;
+        private Node<T> next;
+
+        Node(T item, long deadlineNanos) {
+            this.item = item;
+            this.deadlineNanos = deadlineNanos;
+        }
+    }
+}
@@ -0,0 +1,283 @@
+package com.paymentsense.connecte.resilience;
+
+import com.paymentsense.connecte.exception.ApiException;
+import com.paymentsense.connecte.exception.PaymentsenseException;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Lock-free circuit breaker for a single endpoint.
+ * <p>
+ * The current state is an immutable snapshot swapped with compare-and-set, so checking
+ * for permission in the closed state costs a single volatile read. Outcomes are recorded
+ * in a fixed-size ring of the most recent calls with running failure and slow-call counts.
+ * </p>
+ * <p>
+ * Every snapshot has its own generation, which is handed out with each permission and
+ * passed back with the outcome. Outcomes of calls admitted by an earlier snapshot are
+ * ignored, so a call that started before the circuit opened cannot count as a probe or
+ * close the circuit again.
+ * </p>
+ *
+ * @see CircuitBreakerConfig
+ */
+public final class CircuitBreaker {
+    /**
+     * Circuit breaker states.
+     */
+    public enum State {
+        /**
+         * Calls flow normally and outcomes are recorded
+         */
+        CLOSED,
+
+        /**
+         * Calls are rejected without being sent
+         */
+        OPEN,
+
+        /**
+         * A limited number of probe calls are let through
+         */
+        HALF_OPEN
+    }
+
+    /**
+     * Returned by {@link #tryAcquirePermission()} when the call must fail fast.
+     */
+    public static final long NOT_PERMITTED = -1;
+
+    private final CircuitBreakerConfig config;
+    private final long slowCallNanos;
+    private final long openNanos;
+    private final AtomicLong generations = new AtomicLong();
+    private final AtomicReference<Snapshot> state;
+
+    /**
+     * Create a circuit breaker.
+     *
+     * @param config the circuit breaker configuration
+     */
+    public CircuitBreaker(CircuitBreakerConfig config) {
+        this.config = config;
+        this.slowCallNanos = config.getSlowCallDuration().toNanos();
+        this.openNanos = config.getOpenDuration().toNanos();
+        this.state = new AtomicReference<>(closed());
+    }
+
+    /**
+     * Get the current state.
+     *
+     * @return the state
+     */
+    public State getState() {
+        return state.get().state;
+    }
+
+    /**
+     * Try to obtain permission for a call.
+     * <p>
+     * A successful call to this method must be followed by exactly one call to
+     * {@link #onComplete(long, long, PaymentsenseException)} or {@link #release(long)}
+     * with the returned permit.
+     * </p>
+     *
+     * @return the generation of the state that admitted the call, or {@link #NOT_PERMITTED}
+     *         if the call should fail fast
+     */
+    public long tryAcquirePermission() {
+        if (!config.isEnabled()) {
+            return 0;
+        }
+        while (true) {
+            Snapshot current = state.get();
+            switch (current.state) {
+                case CLOSED:
+                    return current.generation;
+                case OPEN:
+                    if (System.nanoTime() - current.openedAt < openNanos) {
+                        return NOT_PERMITTED;
+                    }
+                    state.compareAndSet(current, halfOpen());
+                    break;
+                default:
+                    return current.tryAcquireProbe() ? current.generation : NOT_PERMITTED;
+            }
+        }
+    }
+
+    /**
+     * Record the outcome of a permitted call. Ignored if the state has changed since the
+     * call was admitted.
+     *
+     * @param permit        the value returned by {@link #tryAcquirePermission()}
+     * @param durationNanos the call duration
+     * @param error         the failure, or {@code null} if the call succeeded
+     */
+    public void onComplete(long permit, long durationNanos, PaymentsenseException error) {
+        if (!config.isEnabled()) {
+            return;
+        }
+        Snapshot current = state.get();
+        if (current.generation != permit) {
+            return;
+        }
+        boolean failure = isFailure(error);
+        boolean slow = durationNanos >= slowCallNanos;
+
+        if (current.state == State.CLOSED) {
+            current.window.record(failure, slow);
+            if (current.window.shouldTrip()) {
+                state.compareAndSet(current, open());
+            }
+        } else if (current.state == State.HALF_OPEN) {
+            if (failure || slow) {
+                state.compareAndSet(current, open());
+            } else if (current.probeSucceeded() >= config.getPermittedCallsInHalfOpenState()) {
+                state.compareAndSet(current, closed());
+            }
+        }
+    }
+
+    /**
+     * Release a permitted call that ended without a meaningful outcome, such as a
+     * cancellation or interruption. Probes are only handed back to the state that
+     * admitted them.
+     *
+     * @param permit the value returned by {@link #tryAcquirePermission()}
+     */
+    public void release(long permit) {
+        if (!config.isEnabled()) {
+            return;
+        }
+        Snapshot current = state.get();
+        if (current.generation == permit && current.state == State.HALF_OPEN) {
+            current.releaseProbe();
+        }
+    }
+
+    /**
+     * Check whether a failure indicates an unhealthy API.
+     */
+    private static boolean isFailure(PaymentsenseException error) {
+        if (error == null) {
+            return false;
+        }
+        if (error.getCause() instanceof IOException) {
+            return true;
+        }
+        return error instanceof ApiException
+                && error.getStatusCode() != null
+                && error.getStatusCode() >= 500;
+    }
+
+    private Snapshot closed() {
+        return new Snapshot(generations.incrementAndGet(), State.CLOSED, 0, new Window(config), 0);
+    }
+
+    private Snapshot open() {
+        return new Snapshot(generations.incrementAndGet(), State.OPEN, System.nanoTime(), null, 0);
+    }
+
+    private Snapshot halfOpen() {
+        return new Snapshot(generations.incrementAndGet(), State.HALF_OPEN, 0, null,
+                config.getPermittedCallsInHalfOpenState());
+    }
+
+    /**
+     * Immutable state plus the counters that belong to it.
+     */
+    private static final class Snapshot {
+        final long generation;
+        final State state;
+        final long openedAt;
+        final Window window;
+        final AtomicInteger probes;
+        final AtomicInteger probeSuccesses;
+
+        Snapshot(long generation, State state, long openedAt, Window window, int probes) {
+            this.generation = generation;
+            this.state = state;
+            this.openedAt = openedAt;
+            this.window = window;
+            this.probes = new AtomicInteger(probes);
+            this.probeSuccesses = new AtomicInteger();
+        }
+
+        boolean tryAcquireProbe() {
+            int current;
+            do {
+                current = probes.get();
+                if (current <= 0) {
+                    return false;
+                }
+            } while (!probes.compareAndSet(current, current - 1));
+            return true;
+        }
+
+        void releaseProbe() {
+            probes.incrementAndGet();
+        }
+
+        int probeSucceeded() {
+            return probeSuccesses.incrementAndGet();
+        }
+    }
+
+    /**
+     * Count-based sliding window over the most recent call outcomes.
+     */
+    private static final class Window {
+        private static final int RECORDED = 1;
+        private static final int FAILED = 2;
+        private static final int SLOW = 4;
+
+        private final AtomicIntegerArray slots;
+        private final AtomicLong cursor = new AtomicLong();
+        private final AtomicInteger calls = new AtomicInteger();
+        private final AtomicInteger failures = new AtomicInteger();
+        private final AtomicInteger slowCalls = new AtomicInteger();
+        private final int minimumCalls;
+        private final int failureThreshold;
+        private final int slowThreshold;
+
+        Window(CircuitBreakerConfig config) {
+            this.slots = new AtomicIntegerArray(config.getSlidingWindowSize());
+            this.minimumCalls = config.getMinimumNumberOfCalls();
+            this.failureThreshold = config.getFailureRateThreshold();
+            this.slowThreshold = config.getSlowCallRateThreshold();
+        }
+
+        void record(boolean failure, boolean slow) {
+            int outcome = RECORDED | (failure ? FAILED : 0) | (slow ? SLOW : 0);
+            int index = (int) (cursor.getAndIncrement() % slots.length());
+            int previous = slots.getAndSet(index, outcome);
+
+            if (previous == 0) {
+                calls.incrementAndGet();
+            }
+            adjust(failures, previous, outcome, FAILED);
+            adjust(slowCalls, previous, outcome, SLOW);
+        }
+
+        boolean shouldTrip() {
+            int total = calls.get();
+            if (total < minimumCalls) {
+                return false;
+            }
+            return failures.get() * 100 >= failureThreshold * total
+                    || slowCalls.get() * 100 >= slowThreshold * total;
+        }
+
+        private static void adjust(AtomicInteger counter, int previous, int outcome, int flag) {
+            int delta = ((outcome & flag) != 0 ? 1 : 0) - ((previous & flag) != 0 ? 1 : 0);
+            if (delta != 0) {
+                counter.addAndGet(delta);
+            }
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.paymentsense.connecte.resilience;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.Duration;
+
+/**
+ * Circuit breaker configuration, applied separately to each Connect-E endpoint.
+ * <p>
+ * The breaker tracks the outcome of the last {@link #slidingWindowSize} calls. Once at
+ * least {@link #minimumNumberOfCalls} have been recorded, it opens when the failure rate
+ * or the slow-call rate reaches its threshold. While open, calls fail immediately with a
+ * {@code CircuitBreakerOpenException}. After {@link #openDuration} it lets
+ * {@link #permittedCallsInHalfOpenState} probe calls through, closing again if they all
+ * succeed and re-opening on the first failure.
+ * </p>
+ * <p>
+ * Network errors and 5xx responses count as failures; other responses (including 4xx)
+ * show the API is answering and count as successes.
+ * </p>
+ */
+@Data
+@Builder
+public class CircuitBreakerConfig {
+    /**
+     * Whether circuit breaking is enabled
+     */
+    @Builder.Default
+    private final boolean enabled = true;
+
+    /**
+     * Failure rate, in percent, at or above which the breaker opens
+     */
+    @Builder.Default
+    private final int failureRateThreshold = 50;
+
+    /**
+     * Slow-call rate, in percent, at or above which the breaker opens
+     */
+    @Builder.Default
+    private final int slowCallRateThreshold = 80;
+
+    /**
+     * Duration at or above which a call counts as slow
+     */
+    @Builder.Default
+    private final Duration slowCallDuration = Duration.ofSeconds(5);
+
+    /**
+     * Number of most recent calls the rates are computed over
+     */
+    @Builder.Default
+    private final int slidingWindowSize = 100;
+
+    /**
+     * Minimum number of calls in the window before the rates are evaluated
+     */
+    @Builder.Default
+    private final int minimumNumberOfCalls = 20;
+
+    /**
+     * How long the breaker stays open before allowing probe calls
+     */
+    @Builder.Default
+    private final Duration openDuration = Duration.ofSeconds(30);
+
+    /**
+     * Number of probe calls allowed while half-open
+     */
+    @Builder.Default
+    private final int permittedCallsInHalfOpenState = 5;
+
+    /**
+     * Get a configuration that never opens the circuit.
+     *
+     * @return a disabled configuration
+     */
+    public static CircuitBreakerConfig disabled() {
+        return CircuitBreakerConfig.builder().enabled(false).build();
+    }
+
+    /**
+     * Validate the configuration.
+     *
+     * @throws IllegalArgumentException if the configuration is invalid
+     */
+    public void validate() {
+        if (failureRateThreshold < 1 || failureRateThreshold > 100) {
+            throw new IllegalArgumentException("Failure rate threshold must be between 1 and 100");
+        }
+        if (slowCallRateThreshold < 1 || slowCallRateThreshold > 100) {
+            throw new IllegalArgumentException("Slow call rate threshold must be between 1 and 100");
+        }
+        if (slowCallDuration == null || slowCallDuration.isNegative() || slowCallDuration.isZero()) {
+            throw new IllegalArgumentException("Slow call duration must be positive");
+        }
+        if (slidingWindowSize < 1) {
+            throw new IllegalArgumentException("Sliding window size must be at least 1");
+        }
+        if (minimumNumberOfCalls < 1 || minimumNumberOfCalls > slidingWindowSize) {
+            throw new IllegalArgumentException("Minimum number of calls must be between 1 and the window size");
+        }
+        if (openDuration == null || openDuration.isNegative()) {
+            throw new IllegalArgumentException("Open duration cannot be negative");
+        }
+        if (permittedCallsInHalfOpenState < 1) {
+            throw new IllegalArgumentException("Permitted calls in half-open state must be at least 1");
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.paymentsense.connecte.resilience;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Lock-free bound on the number of requests in flight at once.
+ * <p>
+ * A caller takes a permit before sending and returns it when its call, including any
+ * retries, has finished. There is no queue: when every permit is taken the caller is
+ * refused immediately, so a client that has saturated its share cannot hold threads
+ * that other clients need.
+ * </p>
+ */
+public final class ConcurrencyLimiter {
+    private final int maxConcurrent;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    /**
+     * Create a concurrency limiter.
+     *
+     * @param maxConcurrent the maximum number of permits out at once
+     * @throws IllegalArgumentException if maxConcurrent is less than 1
+     */
+    public ConcurrencyLimiter(int maxConcurrent) {
+        if (maxConcurrent < 1) {
+            throw new IllegalArgumentException("Max concurrent requests must be at least 1");
+        }
+        this.maxConcurrent = maxConcurrent;
+    }
+
+    /**
+     * Take a permit only if one is immediately available.
+     *
+     * @return true if a permit was taken and must be returned with {@link #release()}
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= maxConcurrent) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Return a permit taken with {@link #tryAcquire()}.
+     */
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+
+    /**
+     * Get the number of permits currently taken.
+     *
+     * @return the in-flight request count
+     */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * Get the maximum number of permits out at once.
+     *
+     * @return the concurrency limit
+     */
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+}
@@ -0,0 +1,113 @@
+package com.paymentsense.connecte.resilience;
+
+import com.paymentsense.connecte.metrics.LatencyHistogram;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Decides when a lookup is hedged and whether the budget allows it, and counts hedges.
+ * <p>
+ * With a learned delay, the latencies of original requests are kept in a
+ * {@link LatencyHistogram} and the percentile is recomputed every
+ * {@value #RECOMPUTE_INTERVAL} samples, so reading the delay on the request path is a
+ * single volatile read. Thread-safe; one instance is shared by all lookups of a client.
+ * </p>
+ *
+ * @see HedgingConfig
+ */
+public final class Hedger {
+    private static final int RECOMPUTE_INTERVAL = 64;
+
+    private final HedgingConfig config;
+    private final RetryBudget budget;
+    private final LatencyHistogram latencies;
+    private final long minDelayNanos;
+    private final AtomicLong samples = new AtomicLong();
+    private volatile long delayNanos;
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder hedges = new LongAdder();
+    private final LongAdder hedgesWon = new LongAdder();
+    private final LongAdder budgetExhausted = new LongAdder();
+
+    /**
+     * Create a hedger.
+     *
+     * @param config the hedging configuration
+     */
+    public Hedger(HedgingConfig config) {
+        this.config = config;
+        this.budget = new RetryBudget(config.getBudgetRatio(), config.getBudgetCapacity());
+        this.minDelayNanos = config.getMinDelay().toNanos();
+        if (config.getDelay() != null) {
+            this.latencies = null;
+            this.delayNanos = config.getDelay().toNanos();
+        } else {
+            this.latencies = new LatencyHistogram();
+            this.delayNanos = -1;
+        }
+    }
+
+    /**
+     * Record a new lookup and get how long to wait before hedging it.
+     *
+     * @return the hedge delay in nanoseconds, or -1 if the lookup is not to be hedged
+     */
+    public long onRequest() {
+        requests.increment();
+        budget.recordRequest();
+        return delayNanos;
+    }
+
+    /**
+     * Try to withdraw one hedge from the budget.
+     *
+     * @return true if the hedge may be sent
+     */
+    public boolean tryAcquire() {
+        if (budget.tryAcquire()) {
+            hedges.increment();
+            return true;
+        }
+        budgetExhausted.increment();
+        return false;
+    }
+
+    /**
+     * Record how long an original request took, or had been running when a hedge
+     * answered first.
+     *
+     * @param nanos the latency in nanoseconds
+     */
+    public void recordLatency(long nanos) {
+        if (latencies == null) {
+            return;
+        }
+        latencies.record(nanos);
+        long count = samples.incrementAndGet();
+        if (count >= config.getMinSamples() && (count % RECOMPUTE_INTERVAL == 0 || delayNanos < 0)) {
+            delayNanos = Math.max(minDelayNanos, latencies.getValueAtPercentile(config.getPercentile()));
+        }
+    }
+
+    /**
+     * Record the outcome of a lookup that sent a hedge.
+     *
+     * @param hedgeWon true if the hedge answered first
+     */
+    public void onHedgeComplete(boolean hedgeWon) {
+        if (hedgeWon) {
+            hedgesWon.increment();
+        }
+    }
+
+    /**
+     * Get a snapshot of the hedging counters.
+     *
+     * @return the current hedging statistics
+     */
+    public HedgingStats stats() {
+        return new HedgingStats(requests.sum(), hedges.sum(), hedgesWon.sum(), budgetExhausted.sum(), delayNanos);
+    }
+}
@@ -0,0 +1,94 @@
+package com.paymentsense.connecte.resilience;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.Duration;
+
+/**
+ * Hedging configuration for {@code getPaymentInfo}.
+ * <p>
+ * GET {@code /payments/{id}} has no side effects, so when a lookup has not answered
+ * within the hedge delay a second, identical request is sent; whichever answers first is
+ * used and the other is cancelled. The delay is either fixed or learned as the
+ * {@link #percentile} of observed lookup latencies, in which case hedging starts once
+ * {@link #minSamples} lookups have been measured. Hedges are limited by a budget, so they
+ * add at most {@link #budgetRatio} extra load on top of the original lookups.
+ * </p>
+ */
+@Data
+@Builder
+public class HedgingConfig {
+    /**
+     * Whether hedging is enabled
+     */
+    @Builder.Default
+    private final boolean enabled = true;
+
+    /**
+     * Fixed hedge delay; {@code null} (the default) learns it from observed latencies
+     */
+    private final Duration delay;
+
+    /**
+     * Latency percentile used as the learned hedge delay
+     */
+    @Builder.Default
+    private final double percentile = 95.0;
+
+    /**
+     * Lower bound of the learned hedge delay
+     */
+    @Builder.Default
+    private final Duration minDelay = Duration.ofMillis(5);
+
+    /**
+     * Number of lookups measured before a learned delay is used
+     */
+    @Builder.Default
+    private final int minSamples = 100;
+
+    /**
+     * Hedges earned per lookup, i.e. the maximum extra load hedging may add
+     */
+    @Builder.Default
+    private final double budgetRatio = 0.05;
+
+    /**
+     * Maximum number of hedges that can be banked in the budget
+     */
+    @Builder.Default
+    private final int budgetCapacity = 10;
+
+    /**
+     * Get a configuration with hedging turned off.
+     *
+     * @return a disabled configuration
+     */
+    public static HedgingConfig disabled() {
+        return HedgingConfig.builder().enabled(false).build();
+    }
+
+    /**
+     * Validate the configuration.
+     *
+     * @throws IllegalArgumentException if the configuration is invalid
+     */
+    public void validate() {
+        if (delay != null && (delay.isNegative() || delay.isZero())) {
+            throw new IllegalArgumentException("Hedge delay must be positive");
+        }
+        if (!(percentile > 0.0 && percentile < 100.0)) {
+            throw new IllegalArgumentException("Hedge percentile must be in (0, 100)");
+        }
+        if (minDelay == null || minDelay.isNegative()) {
+            throw new IllegalArgumentException("Minimum hedge delay cannot be negative");
+        }
+        if (minSamples < 1) {
+            throw new IllegalArgumentException("Minimum hedge samples must be at least 1");
+        }
+        if (budgetRatio < 0 || budgetRatio > 1 || budgetCapacity < 0) {
+            throw new IllegalArgumentException("Hedge budget ratio must be in [0, 1] and capacity non-negative");
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.paymentsense.connecte.resilience;
+
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Point-in-time snapshot of hedging counters.
+ */
+@Getter
+@ToString
+public final class HedgingStats {
+    /**
+     * Lookups eligible for hedging
+     */
+    private final long requests;
+
+    /**
+     * Hedge requests sent
+     */
+    private final long hedges;
+
+    /**
+     * Hedges that answered before the original request
+     */
+    private final long hedgesWon;
+
+    /**
+     * Hedges skipped because the hedge budget was exhausted
+     */
+    private final long budgetExhausted;
+
+    /**
+     * Current hedge delay in nanoseconds, or -1 while a learned delay is still warming up
+     */
+    private final long delayNanos;
+
+    HedgingStats(long requests, long hedges, long hedgesWon, long budgetExhausted, long delayNanos) {
+        this.requests = requests;
+        this.hedges = hedges;
+        this.hedgesWon = hedgesWon;
+        this.budgetExhausted = budgetExhausted;
+        this.delayNanos = delayNanos;
+    }
+
+    /**
+     * Get the fraction of lookups that sent a hedge.
+     *
+     * @return the hedge rate between 0 and 1
+     */
+    public double getHedgeRate() {
+        return requests == 0 ? 0 : (double) hedges / requests;
+    }
+}
@@ -0,0 +1,78 @@
+package com.paymentsense.connecte.resilience;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.Duration;
+
+/**
+ * Client-side rate limit for a single endpoint.
+ * <p>
+ * Requests are paced by a token bucket refilled at {@link #permitsPerSecond} and holding
+ * up to {@link #burstCapacity} permits. When the bucket is empty, {@link Mode#BLOCK} waits
+ * for the next permit (up to {@link #maxWait}) and {@link Mode#REJECT} fails immediately
+ * with a {@code RateLimitExceededException}. Asynchronous calls wait on a timer rather
+ * than holding a thread.
+ * </p>
+ */
+@Data
+@Builder
+public class RateLimitConfig {
+    /**
+     * Behaviour when no permit is immediately available.
+     */
+    public enum Mode {
+        /**
+         * Wait for a permit, up to the configured maximum wait
+         */
+        BLOCK,
+
+        /**
+         * Fail immediately
+         */
+        REJECT
+    }
+
+    /**
+     * Sustained request rate
+     */
+    private final double permitsPerSecond;
+
+    /**
+     * Maximum number of requests allowed back-to-back after an idle period
+     */
+    @Builder.Default
+    private final int burstCapacity = 1;
+
+    /**
+     * Behaviour when the bucket is empty
+     */
+    @Builder.Default
+    private final Mode mode = Mode.BLOCK;
+
+    /**
+     * Longest a request waits for a permit in {@link Mode#BLOCK} before failing
+     */
+    @Builder.Default
+    private final Duration maxWait = Duration.ofSeconds(5);
+
+    /**
+     * Validate the configuration.
+     *
+     * @throws IllegalArgumentException if the configuration is invalid
+     */
+    public void validate() {
+        if (!(permitsPerSecond > 0)) {
+            throw new IllegalArgumentException("Permits per second must be positive");
+        }
+        if (burstCapacity < 1) {
+            throw new IllegalArgumentException("Burst capacity must be at least 1");
+        }
+        if (mode == null) {
+            throw new IllegalArgumentException("Rate limit mode is required");
+        }
+        if (maxWait == null || maxWait.isNegative()) {
+            throw new IllegalArgumentException("Max wait cannot be negative");
+        }
+    }
+}
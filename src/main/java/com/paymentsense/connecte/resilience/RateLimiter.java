@@ -0,0 +1,56 @@
+package com.paymentsense.connecte.resilience;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token-bucket rate limiter.
+ * <p>
+ * Implemented as a generic cell rate algorithm: a single atomic "theoretical arrival
+ * time" is advanced by one emission interval per permit with compare-and-set, which is
+ * equivalent to a token bucket without a refill thread or lock. A caller that has to
+ * wait reserves its slot up front, so waiting callers are served in order.
+ * </p>
+ *
+ * @see RateLimitConfig
+ */
+public final class RateLimiter {
+    private final long intervalNanos;
+    private final long toleranceNanos;
+    private final long maxWaitNanos;
+    private final AtomicLong theoreticalArrival;
+
+    /**
+     * Create a rate limiter.
+     *
+     * @param config the rate limit configuration
+     */
+    public RateLimiter(RateLimitConfig config) {
+        this.intervalNanos = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / config.getPermitsPerSecond()));
+        this.toleranceNanos = intervalNanos * (config.getBurstCapacity() - 1);
+        this.maxWaitNanos = config.getMode() == RateLimitConfig.Mode.REJECT ? 0 : config.getMaxWait().toNanos();
+        this.theoreticalArrival = new AtomicLong(System.nanoTime() - toleranceNanos);
+    }
+
+    /**
+     * Reserve a permit.
+     *
+     * @return how long the caller must wait before using the permit, in nanoseconds
+     *         (0 if immediately available), or -1 if no permit is available within the
+     *         configured maximum wait
+     */
+    public long reserve() {
+        while (true) {
+            long now = System.nanoTime();
+            long current = theoreticalArrival.get();
+            long base = current - now > 0 ? current : now;
+            long wait = base - toleranceNanos - now;
+            if (wait > maxWaitNanos) {
+                return -1;
+            }
+            if (theoreticalArrival.compareAndSet(current, base + intervalNanos)) {
+                return wait > 0 ? wait : 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.paymentsense.connecte.resilience;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free budget bounding how many retries a client may issue.
+ * <p>
+ * Every original request deposits {@code ratio} of a retry, up to {@code capacity};
+ * every retry withdraws one. The budget starts full so that a quiet client can still
+ * retry occasional failures.
+ * </p>
+ */
+public final class RetryBudget {
+    private static final long SCALE = 1000;
+
+    private final long deposit;
+    private final long capacity;
+    private final AtomicLong balance;
+
+    /**
+     * Create a retry budget.
+     *
+     * @param ratio    retries earned per request
+     * @param capacity maximum number of banked retries
+     */
+    public RetryBudget(double ratio, int capacity) {
+        this.deposit = Math.round(ratio * SCALE);
+        this.capacity = capacity * SCALE;
+        this.balance = new AtomicLong(this.capacity);
+    }
+
+    /**
+     * Record an original (non-retry) request.
+     */
+    public void recordRequest() {
+        if (deposit == 0) {
+            return;
+        }
+        long current;
+        do {
+            current = balance.get();
+            if (current >= capacity) {
+                return;
+            }
+        } while (!balance.compareAndSet(current, Math.min(capacity, current + deposit)));
+    }
+
+    /**
+     * Try to withdraw one retry from the budget.
+     *
+     * @return true if the retry may proceed
+     */
+    public boolean tryAcquire() {
+        long current;
+        do {
+            current = balance.get();
+            if (current < SCALE) {
+                return false;
+            }
+        } while (!balance.compareAndSet(current, current - SCALE));
+        return true;
+    }
+
+    /**
+     * Get the number of retries currently available.
+     *
+     * @return the available retries
+     */
+    public double available() {
+        return balance.get() / (double) SCALE;
+    }
+}
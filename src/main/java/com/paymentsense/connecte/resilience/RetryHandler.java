@@ -0,0 +1,113 @@
+package com.paymentsense.connecte.resilience;
+
+import com.paymentsense.connecte.exception.ApiException;
+import com.paymentsense.connecte.exception.PaymentsenseException;
+import com.paymentsense.connecte.service.Endpoint;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.NoRouteToHostException;
+import java.net.UnknownHostException;
+import java.net.http.HttpConnectTimeoutException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Decides whether and when a failed request is retried, and counts attempts.
+ * <p>
+ * Thread-safe; one instance is shared by all requests of a client.
+ * </p>
+ *
+ * @see RetryPolicy
+ */
+public final class RetryHandler {
+    private final RetryPolicy policy;
+    private final RetryBudget budget;
+    private final LongAdder attempts = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder budgetExhausted = new LongAdder();
+
+    /**
+     * Create a retry handler.
+     *
+     * @param policy the retry policy
+     */
+    public RetryHandler(RetryPolicy policy) {
+        this.policy = policy;
+        this.budget = new RetryBudget(policy.getBudgetRatio(), policy.getBudgetCapacity());
+    }
+
+    /**
+     * Record the first attempt of a new request.
+     */
+    public void onRequest() {
+        attempts.increment();
+        budget.recordRequest();
+    }
+
+    /**
+     * Decide whether a failed attempt should be retried.
+     * <p>
+     * A positive decision withdraws from the retry budget and counts the next attempt.
+     * </p>
+     *
+     * @param endpoint the endpoint that was called
+     * @param error    the failure of the attempt
+     * @param attempt  the number of the failed attempt, starting at 1
+     * @return the backoff in milliseconds before retrying, or -1 to give up
+     */
+    public long nextBackoffMillis(Endpoint endpoint, PaymentsenseException error, int attempt) {
+        if (attempt >= policy.getMaxAttempts() || !isRetryable(endpoint, error)) {
+            return -1;
+        }
+        if (!budget.tryAcquire()) {
+            budgetExhausted.increment();
+            return -1;
+        }
+        retries.increment();
+        attempts.increment();
+        return backoffMillis(attempt);
+    }
+
+    /**
+     * Get a snapshot of the retry counters.
+     *
+     * @return the retry statistics
+     */
+    public RetryStats stats() {
+        return new RetryStats(attempts.sum(), retries.sum(), budgetExhausted.sum(), budget.available());
+    }
+
+    /**
+     * Check whether a failure is safe to retry for the given endpoint.
+     */
+    private boolean isRetryable(Endpoint endpoint, PaymentsenseException error) {
+        Throwable cause = error.getCause();
+        if (cause instanceof IOException) {
+            return endpoint.isIdempotent() || isPreSend((IOException) cause);
+        }
+        if (error instanceof ApiException && error.getStatusCode() != null) {
+            return endpoint.isIdempotent() && policy.getRetryableStatusCodes().contains(error.getStatusCode());
+        }
+        return false;
+    }
+
+    /**
+     * Check whether a network failure happened before any request bytes were sent.
+     */
+    private static boolean isPreSend(IOException e) {
+        return e instanceof ConnectException
+                || e instanceof HttpConnectTimeoutException
+                || e instanceof UnknownHostException
+                || e instanceof NoRouteToHostException;
+    }
+
+    /**
+     * Full-jitter exponential backoff for the retry after the given attempt.
+     */
+    private long backoffMillis(int attempt) {
+        double bound = policy.getInitialBackoff().toMillis() * Math.pow(policy.getMultiplier(), attempt - 1);
+        long cap = (long) Math.min(policy.getMaxBackoff().toMillis(), bound);
+        return cap <= 0 ? 0 : ThreadLocalRandom.current().nextLong(cap + 1);
+    }
+}
@@ -0,0 +1,105 @@
+package com.paymentsense.connecte.resilience;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Retry configuration for Connect-E requests.
+ * <p>
+ * Retries use exponential backoff with full jitter: before retry {@code n} the client
+ * sleeps a random duration between zero and
+ * {@code min(maxBackoff, initialBackoff * multiplier^(n-1))}. Retries are additionally
+ * limited by a client-wide budget, so that during an outage they add at most
+ * {@code budgetRatio} extra load on top of the original requests.
+ * </p>
+ * <p>
+ * Whether a failure is retried depends on the operation. GET {@code /payments/{id}} is
+ * retried on any network error and on the {@link #retryableStatusCodes}. POSTs to
+ * {@code /access-tokens} and {@code /cross-reference-payments} are only retried when the
+ * request provably never left the client (connection refused, connect timeout, unknown
+ * host), so a payment is never submitted twice.
+ * </p>
+ */
+@Data
+@Builder
+public class RetryPolicy {
+    /**
+     * Maximum number of attempts, including the first one
+     */
+    @Builder.Default
+    private final int maxAttempts = 3;
+
+    /**
+     * Upper bound of the backoff before the first retry
+     */
+    @Builder.Default
+    private final Duration initialBackoff = Duration.ofMillis(100);
+
+    /**
+     * Upper bound of any single backoff
+     */
+    @Builder.Default
+    private final Duration maxBackoff = Duration.ofSeconds(2);
+
+    /**
+     * Growth factor of the backoff bound between attempts
+     */
+    @Builder.Default
+    private final double multiplier = 2.0;
+
+    /**
+     * HTTP status codes retried for idempotent operations
+     */
+    @Builder.Default
+    private final Set<Integer> retryableStatusCodes = Set.of(502, 503, 504);
+
+    /**
+     * Retries earned per request, i.e. the maximum extra load retries may add
+     */
+    @Builder.Default
+    private final double budgetRatio = 0.1;
+
+    /**
+     * Maximum number of retries that can be banked in the budget
+     */
+    @Builder.Default
+    private final int budgetCapacity = 20;
+
+    /**
+     * Get a policy that never retries.
+     *
+     * @return a single-attempt policy
+     */
+    public static RetryPolicy disabled() {
+        return RetryPolicy.builder().maxAttempts(1).build();
+    }
+
+    /**
+     * Validate the policy.
+     *
+     * @throws IllegalArgumentException if the policy is invalid
+     */
+    public void validate() {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("Max attempts must be at least 1");
+        }
+        if (initialBackoff == null || initialBackoff.isNegative()) {
+            throw new IllegalArgumentException("Initial backoff cannot be negative");
+        }
+        if (maxBackoff == null || maxBackoff.compareTo(initialBackoff) < 0) {
+            throw new IllegalArgumentException("Max backoff cannot be less than the initial backoff");
+        }
+        if (multiplier < 1.0) {
+            throw new IllegalArgumentException("Backoff multiplier must be at least 1");
+        }
+        if (retryableStatusCodes == null) {
+            throw new IllegalArgumentException("Retryable status codes are required");
+        }
+        if (budgetRatio < 0 || budgetCapacity < 0) {
+            throw new IllegalArgumentException("Retry budget cannot be negative");
+        }
+    }
+}
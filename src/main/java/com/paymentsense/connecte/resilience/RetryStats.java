@@ -0,0 +1,38 @@
+package com.paymentsense.connecte.resilience;
+
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Point-in-time snapshot of retry counters.
+ */
+@Getter
+@ToString
+public final class RetryStats {
+    /**
+     * HTTP attempts made, including retries
+     */
+    private final long attempts;
+
+    /**
+     * Retries issued
+     */
+    private final long retries;
+
+    /**
+     * Retries skipped because the retry budget was exhausted
+     */
+    private final long budgetExhausted;
+
+    /**
+     * Retries currently available in the budget
+     */
+    private final double budgetAvailable;
+
+    RetryStats(long attempts, long retries, long budgetExhausted, double budgetAvailable) {
+        this.attempts = attempts;
+        this.retries = retries;
+        this.budgetExhausted = budgetExhausted;
+        this.budgetAvailable = budgetAvailable;
+    }
+}
@@ -0,0 +1,45 @@
+package com.paymentsense.connecte.service;
+
+import lombok.Getter;
+
+/**
+ * Connect-E REST API endpoints used by the SDK.
+ */
+@Getter
+public enum Endpoint {
+    /**
+     * POST /access-tokens - create a payment token
+     */
+    ACCESS_TOKENS("/access-tokens", "POST", false),
+
+    /**
+     * GET /payments/{id} - retrieve payment information
+     */
+    PAYMENTS("/payments", "GET", true),
+
+    /**
+     * POST /cross-reference-payments/{token} - refund, void or collection
+     */
+    CROSS_REFERENCE_PAYMENTS("/cross-reference-payments", "POST", false);
+
+    /**
+     * Path relative to the API base URL, without a trailing slash
+     */
+    private final String path;
+
+    /**
+     * HTTP method used by the endpoint
+     */
+    private final String method;
+
+    /**
+     * Whether repeating the request has no additional side effects
+     */
+    private final boolean idempotent;
+
+    Endpoint(String path, String method, boolean idempotent) {
+        this.path = path;
+        this.method = method;
+        this.idempotent = idempotent;
+    }
+}
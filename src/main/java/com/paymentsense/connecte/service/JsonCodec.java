@@ -0,0 +1,113 @@
+package com.paymentsense.connecte.service;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.paymentsense.connecte.model.CrossReferencePaymentRequest;
+import com.paymentsense.connecte.model.CrossReferencePaymentResponse;
+import com.paymentsense.connecte.model.PaymentInfo;
+import com.paymentsense.connecte.model.PaymentToken;
+import com.paymentsense.connecte.model.PaymentTokenResponse;
+import com.paymentsense.connecte.model.WebhookEvent;
+import lombok.Getter;
+
+/**
+ * Jackson codecs for the Connect-E models.
+ * <p>
+ * Readers and writers are bound to their root type once, so each request skips the
+ * per-call root type and serializer lookup of {@code ObjectMapper.writeValueAsString}
+ * and {@code readValue}. Instances are immutable and thread-safe.
+ * </p>
+ */
+@Getter
+public final class JsonCodec {
+    /**
+     * The underlying mapper
+     */
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Writer for payment token requests
+     */
+    private final ObjectWriter paymentTokenWriter;
+
+    /**
+     * Writer for cross-reference payment requests
+     */
+    private final ObjectWriter crossReferencePaymentRequestWriter;
+
+    /**
+     * Reader for payment token responses
+     */
+    private final ObjectReader paymentTokenResponseReader;
+
+    /**
+     * Reader for payment information
+     */
+    private final ObjectReader paymentInfoReader;
+
+    /**
+     * Reader for cross-reference payment responses
+     */
+    private final ObjectReader crossReferencePaymentResponseReader;
+
+    /**
+     * Reader for webhook notifications
+     */
+    private final ObjectReader webhookEventReader;
+
+    /**
+     * Create codecs with Jackson's default reflection-based property access.
+     */
+    public JsonCodec() {
+        this(false);
+    }
+
+    /**
+     * Create codecs, optionally registering the Blackbird module.
+     * <p>
+     * Blackbird replaces reflective getter/setter calls with generated lambdas, which
+     * speeds up (de)serialization once warm. It requires
+     * {@code com.fasterxml.jackson.module:jackson-module-blackbird} on the classpath.
+     * </p>
+     *
+     * @param blackbird true to register the Blackbird module
+     * @throws IllegalStateException if Blackbird is requested but not on the classpath
+     */
+    public JsonCodec(boolean blackbird) {
+        this.objectMapper = new ObjectMapper();
+        this.objectMapper.registerModule(new JavaTimeModule());
+        this.objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        if (blackbird) {
+            this.objectMapper.registerModule(blackbirdModule());
+        }
+
+        this.paymentTokenWriter = objectMapper.writerFor(PaymentToken.class);
+        this.crossReferencePaymentRequestWriter = objectMapper.writerFor(CrossReferencePaymentRequest.class);
+        this.paymentTokenResponseReader = objectMapper.readerFor(PaymentTokenResponse.class);
+        this.paymentInfoReader = objectMapper.readerFor(PaymentInfo.class);
+        this.crossReferencePaymentResponseReader = objectMapper.readerFor(CrossReferencePaymentResponse.class);
+        this.webhookEventReader = objectMapper.readerFor(WebhookEvent.class);
+    }
+
+    private static Module blackbirdModule() {
+        try {
+            return BlackbirdSupport.newModule();
+        } catch (NoClassDefFoundError e) {
+            throw new IllegalStateException(
+                    "Blackbird requested but jackson-module-blackbird is not on the classpath", e);
+        }
+    }
+
+    /**
+     * Isolates the optional Blackbird dependency so it is only loaded when enabled.
+     */
+    private static final class BlackbirdSupport {
+        static Module newModule() {
+            return new com.fasterxml.jackson.module.blackbird.BlackbirdModule();
+        }
+    }
+}
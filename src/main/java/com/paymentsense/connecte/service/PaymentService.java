@@ -1,20 +1,60 @@
 package com.paymentsense.connecte.service;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.SerializationFeature;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.paymentsense.connecte.cache.CacheStats;
+import com.paymentsense.connecte.cache.PaymentInfoCache;
 import com.paymentsense.connecte.config.ClientConfig;
+import com.paymentsense.connecte.config.ExecutionMode;
+import com.paymentsense.connecte.config.VirtualThreads;
+import com.paymentsense.connecte.credentials.CredentialProvider;
+import com.paymentsense.connecte.credentials.Credentials;
 import com.paymentsense.connecte.exception.ApiException;
 import com.paymentsense.connecte.exception.AuthenticationException;
+import com.paymentsense.connecte.exception.CircuitBreakerOpenException;
+import com.paymentsense.connecte.exception.ConcurrencyLimitExceededException;
 import com.paymentsense.connecte.exception.PaymentsenseException;
+import com.paymentsense.connecte.exception.RateLimitExceededException;
 import com.paymentsense.connecte.exception.ValidationException;
+import com.paymentsense.connecte.idempotency.IdempotencyKey;
+import com.paymentsense.connecte.idempotency.IdempotencyStore;
+import com.paymentsense.connecte.idempotency.InMemoryIdempotencyStore;
+import com.paymentsense.connecte.interceptor.InterceptorChain;
+import com.paymentsense.connecte.interceptor.InterceptorResponse;
+import com.paymentsense.connecte.journal.CrossReferenceJournal;
+import com.paymentsense.connecte.journal.JournalEntry;
+import com.paymentsense.connecte.journal.JournalOutcome;
+import com.paymentsense.connecte.journal.RecoveredOperation;
+import com.paymentsense.connecte.metrics.MetricsListener;
 import com.paymentsense.connecte.model.*;
+import com.paymentsense.connecte.resilience.CircuitBreaker;
+import com.paymentsense.connecte.resilience.ConcurrencyLimiter;
+import com.paymentsense.connecte.resilience.Hedger;
+import com.paymentsense.connecte.resilience.HedgingStats;
+import com.paymentsense.connecte.resilience.RateLimiter;
+import com.paymentsense.connecte.resilience.RetryHandler;
+import com.paymentsense.connecte.resilience.RetryStats;
+import com.paymentsense.connecte.validation.PaymentTokenValidator;
 
 import java.io.IOException;
-import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Service for handling HTTP communication with Paymentsense Connect-E API.
@@ -22,7 +62,26 @@ import java.net.http.HttpResponse;
 public class PaymentService {
     private final ClientConfig config;
     private final HttpClient httpClient;
-    private final ObjectMapper objectMapper;
+    private final boolean ownsHttpClient;
+    private final JsonCodec jsonCodec;
+    private final CredentialProvider credentialProvider;
+    private final Map<Endpoint, RequestTemplate> templates;
+    private final RetryHandler retryHandler;
+    private final Map<Endpoint, CircuitBreaker> circuitBreakers;
+    private final Map<Endpoint, RateLimiter> rateLimiters;
+    private final PaymentInfoCache paymentInfoCache;
+    private final SingleFlight<String, PaymentInfo> paymentInfoFlights;
+    private final Executor retryExecutor;
+    private final MetricsListener metricsListener;
+    private final boolean metricsEnabled;
+    private final InterceptorChain interceptorChain;
+    private final CrossReferenceJournal journal;
+    private final IdempotencyStore tokenStore;
+    private final SingleFlight<IdempotencyKey, PaymentTokenResponse> tokenFlights;
+    private final long minRemainingValiditySeconds;
+    private final LongAdder storedTokenHits = new LongAdder();
+    private final ConcurrencyLimiter concurrencyLimiter;
+    private final Hedger hedger;
 
     /**
      * Create a new PaymentService with the given configuration.
@@ -30,18 +89,132 @@ public class PaymentService {
      * @param config the client configuration
      */
     public PaymentService(ClientConfig config) {
+        this(config, buildHttpClient(config), new JsonCodec(config.isBlackbird()), true);
+    }
+
+    /**
+     * Create a PaymentService that sends through an existing HTTP client and codecs.
+     * <p>
+     * Services sharing an {@link HttpClient} share its connection pool and selector
+     * thread; the transport settings in {@code config} are then ignored. Everything
+     * else, including credentials, resilience state and caches, stays per service.
+     * </p>
+     *
+     * @param config     the client configuration
+     * @param httpClient the HTTP client to send requests with
+     * @param jsonCodec  the codecs to (de)serialize with
+     */
+    public PaymentService(ClientConfig config, HttpClient httpClient, JsonCodec jsonCodec) {
+        this(config, httpClient, jsonCodec, false);
+    }
+
+    private PaymentService(ClientConfig config, HttpClient httpClient, JsonCodec jsonCodec,
+                           boolean ownsHttpClient) {
         this.config = config;
-        this.httpClient = HttpClient.newBuilder()
-                .connectTimeout(config.getTimeout())
-                .build();
+        this.httpClient = httpClient;
+        this.ownsHttpClient = ownsHttpClient;
+        this.jsonCodec = jsonCodec;
+        this.credentialProvider = config.getCredentialProvider() != null
+                ? config.getCredentialProvider()
+                : CredentialProvider.of(Credentials.builder()
+                        .apiKey(config.getApiKey())
+                        .gatewayUsername(config.getGatewayUsername())
+                        .gatewayPassword(config.getGatewayPassword())
+                        .build());
+
+        this.templates = new EnumMap<>(Endpoint.class);
+        for (Endpoint endpoint : Endpoint.values()) {
+            templates.put(endpoint, new RequestTemplate(config, endpoint, credentialProvider));
+        }
+
+        this.retryHandler = new RetryHandler(config.getRetryPolicy());
+        this.retryExecutor = httpClient.executor().orElse(ForkJoinPool.commonPool());
+
+        this.circuitBreakers = new EnumMap<>(Endpoint.class);
+        for (Endpoint endpoint : Endpoint.values()) {
+            circuitBreakers.put(endpoint, new CircuitBreaker(config.getCircuitBreaker()));
+        }
+
+        this.rateLimiters = new EnumMap<>(Endpoint.class);
+        config.getRateLimits().forEach((endpoint, limit) -> rateLimiters.put(endpoint, new RateLimiter(limit)));
+
+        this.paymentInfoCache = config.getPaymentInfoCache().isEnabled()
+                ? new PaymentInfoCache(config.getPaymentInfoCache())
+                : null;
+        this.paymentInfoFlights = config.isRequestCoalescing() ? new SingleFlight<>() : null;
 
-        this.objectMapper = new ObjectMapper();
-        this.objectMapper.registerModule(new JavaTimeModule());
-        this.objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        this.metricsListener = config.getMetricsListener();
+        this.metricsEnabled = metricsListener != MetricsListener.NOOP;
+
+        this.interceptorChain = config.getInterceptors().isEmpty()
+                ? null
+                : new InterceptorChain(config.getInterceptors());
+        this.journal = config.getJournal();
+
+        if (config.getIdempotency().isEnabled()) {
+            IdempotencyStore store = config.getIdempotency().getStore();
+            this.tokenStore = store != null
+                    ? store
+                    : new InMemoryIdempotencyStore(config.getIdempotency().getMaxSize());
+            this.tokenFlights = new SingleFlight<>();
+        } else {
+            this.tokenStore = null;
+            this.tokenFlights = null;
+        }
+        this.minRemainingValiditySeconds = config.getIdempotency().getMinRemainingValidity().getSeconds();
+        this.concurrencyLimiter = config.getMaxConcurrentRequests() == null
+                ? null
+                : new ConcurrencyLimiter(config.getMaxConcurrentRequests());
+        this.hedger = config.getHedging().isEnabled() ? new Hedger(config.getHedging()) : null;
+    }
+
+    /**
+     * Build an HTTP client from the transport settings in the configuration.
+     *
+     * @param config the client configuration
+     * @return a new HTTP client
+     */
+    public static HttpClient buildHttpClient(ClientConfig config) {
+        applyConnectionPoolProperties(config);
+
+        HttpClient.Builder builder = HttpClient.newBuilder()
+                .version(config.getHttpVersion())
+                .connectTimeout(config.getConnectTimeout());
+
+        if (config.getExecutor() != null) {
+            builder.executor(config.getExecutor());
+        } else if (config.getExecutionMode() == ExecutionMode.VIRTUAL) {
+            builder.executor(VirtualThreads.newThreadPerTaskExecutor("paymentsense-http-"));
+        }
+        if (config.getProxy() != null) {
+            builder.proxy(config.getProxy());
+        }
+        return builder.build();
+    }
+
+    /**
+     * Apply the JVM-wide connection pool settings, unless already set by the application.
+     */
+    private static void applyConnectionPoolProperties(ClientConfig config) {
+        if (config.getConnectionPoolSize() != null
+                && System.getProperty("jdk.httpclient.connectionPoolSize") == null) {
+            System.setProperty("jdk.httpclient.connectionPoolSize",
+                    String.valueOf(config.getConnectionPoolSize()));
+        }
+        if (config.getKeepAliveTimeout() != null
+                && System.getProperty("jdk.httpclient.keepalive.timeout") == null) {
+            System.setProperty("jdk.httpclient.keepalive.timeout",
+                    String.valueOf(Math.max(1, config.getKeepAliveTimeout().getSeconds())));
+        }
     }
 
     /**
      * Create a payment token.
+     * <p>
+     * With idempotency enabled, a request matching an earlier one by order ID, amount,
+     * currency and transaction type returns the earlier token while it is still valid, and
+     * concurrent matching requests share one API call.
+     * </p>
      *
      * @param paymentToken the payment token request
      * @return the payment token response
@@ -54,28 +227,241 @@ public class PaymentService {
         // Fill in config defaults for optional fields
         fillConfigDefaults(paymentToken);
 
-        String url = config.getApiUrl() + "/access-tokens";
-        String requestBody = serializeToJson(paymentToken);
+        IdempotencyKey key = tokenStore == null ? null : IdempotencyKey.of(paymentToken);
+        if (key == null) {
+            return sendPaymentToken(paymentToken);
+        }
+        PaymentTokenResponse stored = storedToken(key);
+        if (stored != null) {
+            return stored;
+        }
+        return tokenFlights.execute(key, () -> {
+            // A call that finished since the lookup above may have stored the token
+            PaymentTokenResponse latest = storedToken(key);
+            return latest != null ? latest : rememberToken(key, sendPaymentToken(paymentToken));
+        });
+    }
+
+    private PaymentTokenResponse sendPaymentToken(PaymentToken paymentToken) throws PaymentsenseException {
+        byte[] requestBody = serializeToJson(jsonCodec.getPaymentTokenWriter(), paymentToken);
+
+        HttpRequest request = buildPostRequest(Endpoint.ACCESS_TOKENS, null, requestBody);
+        byte[] responseBody = executeRequest(Endpoint.ACCESS_TOKENS, request, requestBody);
+
+        return deserializeFromJson(responseBody, jsonCodec.getPaymentTokenResponseReader());
+    }
+
+    /**
+     * Create a payment token without blocking the calling thread.
+     *
+     * @param paymentToken the payment token request
+     * @return a future completing with the payment token response, or exceptionally with a
+     *         {@link PaymentsenseException} if the request fails
+     */
+    public CompletableFuture<PaymentTokenResponse> createPaymentTokenAsync(PaymentToken paymentToken) {
+        byte[] requestBody;
+        try {
+            validatePaymentToken(paymentToken);
+            fillConfigDefaults(paymentToken);
+            requestBody = serializeToJson(jsonCodec.getPaymentTokenWriter(), paymentToken);
+        } catch (PaymentsenseException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+
+        IdempotencyKey key = tokenStore == null ? null : IdempotencyKey.of(paymentToken);
+        if (key == null) {
+            return sendPaymentTokenAsync(requestBody);
+        }
+        PaymentTokenResponse stored = storedToken(key);
+        if (stored != null) {
+            return CompletableFuture.completedFuture(stored);
+        }
+        return tokenFlights.executeAsync(key, () -> {
+            PaymentTokenResponse latest = storedToken(key);
+            return latest != null
+                    ? CompletableFuture.completedFuture(latest)
+                    : sendPaymentTokenAsync(requestBody).thenApply(response -> rememberToken(key, response));
+        });
+    }
 
-        HttpRequest request = buildPostRequest(url, requestBody);
-        String responseBody = executeRequest(request);
+    private CompletableFuture<PaymentTokenResponse> sendPaymentTokenAsync(byte[] requestBody) {
+        HttpRequest request = buildPostRequest(Endpoint.ACCESS_TOKENS, null, requestBody);
+        return executeRequestAsync(Endpoint.ACCESS_TOKENS, request, requestBody,
+                jsonCodec.getPaymentTokenResponseReader());
+    }
+
+    /**
+     * Get the number of {@code createPaymentToken} calls answered with an existing token,
+     * either from the idempotency store or shared with a concurrent identical call.
+     *
+     * @return the number of reused tokens
+     */
+    public long getReusedPaymentTokenCount() {
+        return tokenFlights == null ? 0 : storedTokenHits.sum() + tokenFlights.getCoalescedCount();
+    }
 
-        return deserializeFromJson(responseBody, PaymentTokenResponse.class);
+    /**
+     * Get the number of calls currently in flight, when a concurrency limit is configured.
+     *
+     * @return the in-flight call count, or -1 if calls are not limited
+     */
+    public int getInFlightRequestCount() {
+        return concurrencyLimiter == null ? -1 : concurrencyLimiter.getInFlight();
+    }
+
+    /**
+     * Look up a remembered token that is still valid long enough to hand out again.
+     */
+    private PaymentTokenResponse storedToken(IdempotencyKey key) {
+        PaymentTokenResponse stored = tokenStore.get(key);
+        if (stored == null) {
+            return null;
+        }
+        long nowSeconds = System.currentTimeMillis() / 1000;
+        if (stored.getExpiresAt() != null && stored.getExpiresAt() - nowSeconds >= minRemainingValiditySeconds) {
+            storedTokenHits.increment();
+            return stored;
+        }
+        tokenStore.remove(key);
+        return null;
+    }
+
+    private PaymentTokenResponse rememberToken(IdempotencyKey key, PaymentTokenResponse response) {
+        if (response.getId() != null && response.getExpiresAt() != null) {
+            tokenStore.put(key, response);
+        }
+        return response;
     }
 
     /**
      * Get payment information by ID.
+     * <p>
+     * Concurrent lookups for the same payment share a single request unless request
+     * coalescing is disabled.
+     * </p>
      *
      * @param paymentId the payment ID (payment token ID)
      * @return the payment information
+     * @throws ValidationException   if the payment ID is missing
      * @throws PaymentsenseException if the request fails
      */
     public PaymentInfo getPaymentInfo(String paymentId) throws PaymentsenseException {
-        String url = config.getApiUrl() + "/payments/" + paymentId;
-        HttpRequest request = buildGetRequest(url);
-        String responseBody = executeRequest(request);
+        validatePaymentId(paymentId);
+        if (paymentInfoCache != null) {
+            PaymentInfo cached = paymentInfoCache.get(paymentId);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        if (paymentInfoFlights != null) {
+            return paymentInfoFlights.execute(paymentId, () -> fetchPaymentInfo(paymentId));
+        }
+        return fetchPaymentInfo(paymentId);
+    }
+
+    /**
+     * Get payment information by ID without blocking the calling thread.
+     *
+     * @param paymentId the payment ID (payment token ID)
+     * @return a future completing with the payment information, or exceptionally with a
+     *         {@link PaymentsenseException} if the request fails
+     */
+    public CompletableFuture<PaymentInfo> getPaymentInfoAsync(String paymentId) {
+        try {
+            validatePaymentId(paymentId);
+        } catch (ValidationException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        if (paymentInfoCache != null) {
+            PaymentInfo cached = paymentInfoCache.get(paymentId);
+            if (cached != null) {
+                return CompletableFuture.completedFuture(cached);
+            }
+        }
+
+        if (paymentInfoFlights != null) {
+            return paymentInfoFlights.executeAsync(paymentId, () -> fetchPaymentInfoAsync(paymentId));
+        }
+        return fetchPaymentInfoAsync(paymentId);
+    }
 
-        return deserializeFromJson(responseBody, PaymentInfo.class);
+    /**
+     * Fetch the current payment information without consulting the cache, e.g. when
+     * polling for a status change. The result still refreshes the cache and concurrent
+     * lookups are still coalesced.
+     *
+     * @param paymentId the payment ID (payment token ID)
+     * @return a future completing with the payment information, or exceptionally with a
+     *         {@link PaymentsenseException} if the request fails
+     */
+    public CompletableFuture<PaymentInfo> refreshPaymentInfoAsync(String paymentId) {
+        try {
+            validatePaymentId(paymentId);
+        } catch (ValidationException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        if (paymentInfoFlights != null) {
+            return paymentInfoFlights.executeAsync(paymentId, () -> fetchPaymentInfoAsync(paymentId));
+        }
+        return fetchPaymentInfoAsync(paymentId);
+    }
+
+    /**
+     * Get the number of payment lookups that shared another caller's in-flight request.
+     *
+     * @return the number of deduplicated lookups
+     */
+    public long getCoalescedRequestCount() {
+        return paymentInfoFlights == null ? 0 : paymentInfoFlights.getCoalescedCount();
+    }
+
+    /**
+     * Get a snapshot of the hedging counters.
+     *
+     * @return hedges sent and won and the current hedge delay, or {@code null} if
+     *         hedging is disabled
+     */
+    public HedgingStats getHedgingStats() {
+        return hedger == null ? null : hedger.stats();
+    }
+
+    /**
+     * Reject a missing payment ID before it reaches the cache or the coalescing map,
+     * neither of which accepts null keys.
+     */
+    private static void validatePaymentId(String paymentId) throws ValidationException {
+        if (paymentId == null || paymentId.isEmpty()) {
+            throw new ValidationException("Payment ID is required");
+        }
+    }
+
+    private PaymentInfo fetchPaymentInfo(String paymentId) throws PaymentsenseException {
+        if (hedger != null) {
+            // Hedging races two exchanges, which needs the asynchronous transport
+            return await(fetchPaymentInfoAsync(paymentId));
+        }
+        long version = paymentInfoCache == null ? 0 : paymentInfoCache.version(paymentId);
+        HttpRequest request = buildGetRequest(Endpoint.PAYMENTS, paymentId);
+        byte[] responseBody = executeRequest(Endpoint.PAYMENTS, request, null);
+
+        PaymentInfo info = deserializeFromJson(responseBody, jsonCodec.getPaymentInfoReader());
+        if (paymentInfoCache != null) {
+            paymentInfoCache.put(paymentId, info, version);
+        }
+        return info;
+    }
+
+    private CompletableFuture<PaymentInfo> fetchPaymentInfoAsync(String paymentId) {
+        long version = paymentInfoCache == null ? 0 : paymentInfoCache.version(paymentId);
+        HttpRequest request = buildGetRequest(Endpoint.PAYMENTS, paymentId);
+        CompletableFuture<PaymentInfo> future = hedger == null
+                ? executeRequestAsync(Endpoint.PAYMENTS, request, null, jsonCodec.getPaymentInfoReader())
+                : executeHedgedAsync(Endpoint.PAYMENTS, request, jsonCodec.getPaymentInfoReader());
+        if (paymentInfoCache != null) {
+            future.thenAccept(info -> paymentInfoCache.put(paymentId, info, version));
+        }
+        return future;
     }
 
     /**
@@ -90,106 +476,374 @@ public class PaymentService {
             String paymentToken,
             CrossReferencePaymentRequest request) throws PaymentsenseException {
 
-        String url = config.getApiUrl() + "/cross-reference-payments/" + paymentToken;
-        String requestBody = serializeToJson(request);
+        byte[] requestBody = serializeToJson(jsonCodec.getCrossReferencePaymentRequestWriter(), request);
+        HttpRequest httpRequest = buildCrossReferenceRequest(paymentToken, requestBody);
+        long operationId = journalIntent(paymentToken, request);
+        return sendCrossReferencePayment(paymentToken, httpRequest, requestBody, operationId);
+    }
+
+    private CrossReferencePaymentResponse sendCrossReferencePayment(String paymentToken, HttpRequest httpRequest,
+                                                                    byte[] requestBody, long operationId)
+            throws PaymentsenseException {
+        try {
+            byte[] responseBody = executeRequest(Endpoint.CROSS_REFERENCE_PAYMENTS, httpRequest, requestBody);
+            CrossReferencePaymentResponse response =
+                    deserializeFromJson(responseBody, jsonCodec.getCrossReferencePaymentResponseReader());
+            journalOutcome(operationId, response, null);
+            return response;
+        } catch (PaymentsenseException | RuntimeException e) {
+            journalOutcome(operationId, null, e);
+            throw e;
+        } finally {
+            // The operation may have changed the payment even if the call failed
+            invalidatePaymentInfo(paymentToken);
+        }
+    }
+
+    /**
+     * Execute a cross-reference payment operation without blocking the calling thread.
+     *
+     * @param paymentToken the payment token ID
+     * @param request      the cross-reference payment request
+     * @return a future completing with the cross-reference payment response, or exceptionally
+     *         with a {@link PaymentsenseException} if the request fails
+     */
+    public CompletableFuture<CrossReferencePaymentResponse> executeCrossReferencePaymentAsync(
+            String paymentToken,
+            CrossReferencePaymentRequest request) {
+
+        byte[] requestBody;
+        HttpRequest httpRequest;
+        long operationId;
+        try {
+            requestBody = serializeToJson(jsonCodec.getCrossReferencePaymentRequestWriter(), request);
+            httpRequest = buildCrossReferenceRequest(paymentToken, requestBody);
+            operationId = journalIntent(paymentToken, request);
+        } catch (PaymentsenseException e) {
+            return CompletableFuture.failedFuture(e);
+        }
 
-        HttpRequest httpRequest = buildPostRequest(url, requestBody);
-        String responseBody = executeRequest(httpRequest);
+        CompletableFuture<CrossReferencePaymentResponse> future = executeRequestAsync(
+                Endpoint.CROSS_REFERENCE_PAYMENTS, httpRequest, requestBody,
+                jsonCodec.getCrossReferencePaymentResponseReader());
+        if (journal != null) {
+            future.whenComplete((response, error) ->
+                    journalOutcome(operationId, response, error == null ? null : mapAsyncError(error)));
+        }
+        if (paymentInfoCache != null) {
+            future.whenComplete((response, error) -> invalidatePaymentInfo(paymentToken));
+        }
+        return future;
+    }
 
-        return deserializeFromJson(responseBody, CrossReferencePaymentResponse.class);
+    /**
+     * Get the journaled cross-reference operations whose outcome is unknown.
+     *
+     * @return the in-doubt operations, oldest first
+     * @throws IllegalStateException if no journal is configured
+     */
+    public List<JournalEntry> getInDoubtCrossReferencePayments() {
+        return requireJournal().getInDoubtOperations();
     }
 
     /**
-     * Build an HTTP GET request.
+     * Settle the journaled cross-reference operations whose outcome is unknown, using the
+     * status of their payment.
+     *
+     * @param replay whether to resend operations whose payment shows they never ran
+     * @return what happened to each in-doubt operation
+     * @throws IllegalStateException if no journal is configured
      */
-    private HttpRequest buildGetRequest(String url) {
-        HttpRequest.Builder builder = HttpRequest.newBuilder()
-                .uri(URI.create(url))
-                .header("Authorization", "Bearer " + config.getApiKey())
-                .header("Content-Type", "application/json");
+    public List<RecoveredOperation> recoverCrossReferencePayments(boolean replay) {
+        List<RecoveredOperation> results = new ArrayList<>();
+        for (JournalEntry entry : requireJournal().getInDoubtOperations()) {
+            if (journal.claim(entry.getOperationId())) {
+                results.add(recoverCrossReferencePayment(entry, replay));
+            }
+        }
+        return results;
+    }
+
+    private RecoveredOperation recoverCrossReferencePayment(JournalEntry entry, boolean replay) {
+        long operationId = entry.getOperationId();
+        PaymentInfo info = null;
+        try {
+            // Fetched directly, since a coalesced lookup may have started before the
+            // invalidation and would answer with the state it is meant to replace
+            invalidatePaymentInfo(entry.getPaymentToken());
+            info = fetchPaymentInfo(entry.getPaymentToken());
+            if (info.isTerminal()) {
+                journal.recordOutcome(operationId, JournalOutcome.RESOLVED, info.getStatusCode());
+                return new RecoveredOperation(entry, RecoveredOperation.Action.RESOLVED, info, null, null);
+            }
+            // A status of 3 means the operation is still being authorised; only a payment
+            // with no status at all shows that it never ran
+            if (!replay || info.getStatusCode() != null) {
+                journal.markInDoubt(operationId);
+                return new RecoveredOperation(entry, RecoveredOperation.Action.UNRESOLVED, info, null, null);
+            }
 
-        // Add sandbox headers if needed
-        String[] sandboxHeaders = buildSandboxHeaders();
-        if (sandboxHeaders.length > 0) {
-            builder.headers(sandboxHeaders);
+            CrossReferencePaymentRequest request = CrossReferencePaymentRequest.builder()
+                    .crossReference(entry.getCrossReference())
+                    .build();
+            byte[] requestBody = serializeToJson(jsonCodec.getCrossReferencePaymentRequestWriter(), request);
+            HttpRequest httpRequest = buildCrossReferenceRequest(entry.getPaymentToken(), requestBody);
+            CrossReferencePaymentResponse response =
+                    sendCrossReferencePayment(entry.getPaymentToken(), httpRequest, requestBody, operationId);
+            return new RecoveredOperation(entry, RecoveredOperation.Action.REPLAYED, info, response, null);
+        } catch (PaymentsenseException | IOException | RuntimeException e) {
+            journal.markInDoubt(operationId);
+            return new RecoveredOperation(entry, RecoveredOperation.Action.UNRESOLVED, info, null, e);
         }
+    }
 
-        // Add IP forwarding headers if needed
-        String[] ipHeaders = buildIpHeaders();
-        if (ipHeaders.length > 0) {
-            builder.headers(ipHeaders);
+    /**
+     * Build a cross-reference request, before anything is journaled, so that a payment
+     * token that cannot form a URI never leaves an intent without an outcome.
+     */
+    private HttpRequest buildCrossReferenceRequest(String paymentToken, byte[] requestBody)
+            throws ValidationException {
+        try {
+            return buildPostRequest(Endpoint.CROSS_REFERENCE_PAYMENTS, paymentToken, requestBody);
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("Invalid payment token: " + e.getMessage(), e);
         }
+    }
 
-        return builder
-                .GET()
-                .timeout(config.getTimeout())
-                .build();
+    private CrossReferenceJournal requireJournal() {
+        if (journal == null) {
+            throw new IllegalStateException("No cross-reference journal configured");
+        }
+        return journal;
     }
 
     /**
-     * Build an HTTP POST request.
+     * Journal a cross-reference operation before it is sent.
+     *
+     * @return the operation ID, or -1 if journaling is disabled
+     * @throws PaymentsenseException if the intent cannot be written; the operation must not be sent
      */
-    private HttpRequest buildPostRequest(String url, String body) {
-        HttpRequest.Builder builder = HttpRequest.newBuilder()
-                .uri(URI.create(url))
-                .header("Authorization", "Bearer " + config.getApiKey())
-                .header("Content-Type", "application/json");
+    private long journalIntent(String paymentToken, CrossReferencePaymentRequest request)
+            throws PaymentsenseException {
+        if (journal == null) {
+            return -1;
+        }
+        try {
+            return journal.recordIntent(paymentToken, request.getCrossReference());
+        } catch (IOException e) {
+            throw new PaymentsenseException("Failed to journal cross-reference payment: " + e.getMessage(),
+                    "JOURNAL_ERROR", null, e);
+        }
+    }
 
-        // Add sandbox headers if needed
-        String[] sandboxHeaders = buildSandboxHeaders();
-        if (sandboxHeaders.length > 0) {
-            builder.headers(sandboxHeaders);
+    /**
+     * Journal the outcome of a cross-reference operation. Failures that leave open whether
+     * Connect-E executed it (network errors, timeouts, 5xx, unreadable responses) leave
+     * the operation in doubt.
+     */
+    private void journalOutcome(long operationId, CrossReferencePaymentResponse response, Throwable error) {
+        if (operationId < 0) {
+            return;
+        }
+        JournalOutcome outcome;
+        Integer statusCode;
+        if (error == null) {
+            outcome = JournalOutcome.COMPLETED;
+            statusCode = response.getStatusCode();
+        } else if (error instanceof CircuitBreakerOpenException || error instanceof RateLimitExceededException
+                || error instanceof ConcurrencyLimitExceededException) {
+            outcome = JournalOutcome.NOT_SENT;
+            statusCode = null;
+        } else if (error instanceof PaymentsenseException
+                && ((PaymentsenseException) error).getStatusCode() != null
+                && ((PaymentsenseException) error).getStatusCode() < 500) {
+            outcome = JournalOutcome.REJECTED;
+            statusCode = ((PaymentsenseException) error).getStatusCode();
+        } else {
+            journal.markInDoubt(operationId);
+            return;
         }
 
-        // Add IP forwarding headers if needed
-        String[] ipHeaders = buildIpHeaders();
-        if (ipHeaders.length > 0) {
-            builder.headers(ipHeaders);
+        try {
+            journal.recordOutcome(operationId, outcome, statusCode);
+        } catch (IOException e) {
+            // The call itself succeeded; the operation stays in doubt for recovery to settle
+            journal.markInDoubt(operationId);
         }
+    }
 
-        return builder
-                .POST(HttpRequest.BodyPublishers.ofString(body))
-                .timeout(config.getTimeout())
-                .build();
+    /**
+     * Release the resources this service created for itself. If it built its own HTTP
+     * client on a virtual-thread executor, the executor is shut down; an executor or
+     * HTTP client supplied by the application is left running. Requests in flight are
+     * not cancelled.
+     */
+    public void close() {
+        if (ownsHttpClient) {
+            closeHttpClient(config, httpClient);
+        }
     }
 
     /**
-     * Build sandbox headers if sandbox mode is enabled.
+     * Shut down the virtual-thread executor of an HTTP client built by
+     * {@link #buildHttpClient(ClientConfig)}. An executor supplied through the
+     * configuration is left running.
+     *
+     * @param config     the configuration the client was built from
+     * @param httpClient the HTTP client
      */
-    private String[] buildSandboxHeaders() {
-        if (config.isSandbox()) {
-            return new String[] { "IS-SANDBOX", "true" };
+    public static void closeHttpClient(ClientConfig config, HttpClient httpClient) {
+        if (config.getExecutor() != null) {
+            return;
         }
-        return new String[] {};
+        httpClient.executor().ifPresent(executor -> {
+            if (executor instanceof ExecutorService) {
+                ((ExecutorService) executor).shutdown();
+            }
+        });
     }
 
     /**
-     * Build IP forwarding headers if user IP is configured.
+     * Remove a payment from the payment information cache, if caching is enabled.
+     *
+     * @param paymentId the payment ID
      */
-    private String[] buildIpHeaders() {
-        if (config.getUserIpAddress() != null && !config.getUserIpAddress().isEmpty()) {
-            return new String[] { "X-Forwarded-For", config.getUserIpAddress() };
+    public void invalidatePaymentInfo(String paymentId) {
+        if (paymentInfoCache != null) {
+            paymentInfoCache.invalidate(paymentId);
         }
-        return new String[] {};
     }
 
     /**
-     * Execute an HTTP request and return the response body.
+     * Get a snapshot of the payment information cache counters.
+     *
+     * @return the cache statistics, or {@code null} if caching is disabled
      */
-    private String executeRequest(HttpRequest request) throws PaymentsenseException {
+    public CacheStats getPaymentInfoCacheStats() {
+        return paymentInfoCache == null ? null : paymentInfoCache.stats();
+    }
+
+    /**
+     * Build an HTTP GET request from the endpoint's pre-computed template, exactly as it
+     * would be sent, without sending it. Public so that request construction can be
+     * measured from outside this package.
+     *
+     * @param endpoint  the endpoint
+     * @param pathParam the path parameter, such as the payment ID
+     * @return the request
+     * @throws IllegalArgumentException if the path parameter does not form a valid URI
+     */
+    public HttpRequest buildGetRequest(Endpoint endpoint, String pathParam) {
+        return templates.get(endpoint).get(pathParam);
+    }
+
+    /**
+     * Build an HTTP POST request from the endpoint's pre-computed template, exactly as it
+     * would be sent, without sending it.
+     *
+     * @param endpoint  the endpoint
+     * @param pathParam the path parameter, such as the payment token
+     * @param body      the serialized request body
+     * @return the request
+     * @throws IllegalArgumentException if the path parameter does not form a valid URI
+     */
+    public HttpRequest buildPostRequest(Endpoint endpoint, String pathParam, byte[] body) {
+        return templates.get(endpoint).post(pathParam, body);
+    }
+
+    /**
+     * Get a snapshot of the retry counters.
+     *
+     * @return the retry statistics
+     */
+    public RetryStats getRetryStats() {
+        return retryHandler.stats();
+    }
+
+    /**
+     * Get the current circuit breaker state of an endpoint.
+     *
+     * @param endpoint the endpoint
+     * @return the circuit breaker state
+     */
+    public CircuitBreaker.State getCircuitBreakerState(Endpoint endpoint) {
+        return circuitBreakers.get(endpoint).getState();
+    }
+
+    /**
+     * Execute an HTTP request, retrying as allowed by the retry policy, and return the
+     * raw response body.
+     */
+    private byte[] executeRequest(Endpoint endpoint, HttpRequest request, byte[] requestBody)
+            throws PaymentsenseException {
+        if (concurrencyLimiter == null) {
+            return executeAttempts(endpoint, request, requestBody);
+        }
+        if (!concurrencyLimiter.tryAcquire()) {
+            throw new ConcurrencyLimitExceededException(concurrencyLimiter.getMaxConcurrent());
+        }
         try {
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            return executeAttempts(endpoint, request, requestBody);
+        } finally {
+            concurrencyLimiter.release();
+        }
+    }
+
+    private byte[] executeAttempts(Endpoint endpoint, HttpRequest request, byte[] requestBody)
+            throws PaymentsenseException {
+        CircuitBreaker circuitBreaker = circuitBreakers.get(endpoint);
+        retryHandler.onRequest();
 
-            int statusCode = response.statusCode();
-            String body = response.body();
+        PaymentsenseException lastError = null;
+        for (int attempt = 1; ; attempt++) {
+            awaitRateLimit(endpoint, lastError);
+            long permit = circuitBreaker.tryAcquirePermission();
+            if (permit == CircuitBreaker.NOT_PERMITTED) {
+                throw lastError != null ? lastError : new CircuitBreakerOpenException(endpoint.getPath());
+            }
 
-            if (statusCode == 200) {
+            long startNanos = System.nanoTime();
+            int statusCode = -1;
+            byte[] responseBody = null;
+            try {
+                if (interceptorChain == null) {
+                    HttpResponse<byte[]> response = sendRequest(request);
+                    statusCode = response.statusCode();
+                    responseBody = response.body();
+                } else {
+                    InterceptorResponse response =
+                            interceptorChain.execute(endpoint, request, requestBody, attempt, this::sendRequest);
+                    statusCode = response.getStatusCode();
+                    responseBody = response.getBody();
+                }
+                byte[] body = handleResponse(statusCode, responseBody);
+                long latencyNanos = System.nanoTime() - startNanos;
+                circuitBreaker.onComplete(permit, latencyNanos, null);
+                if (metricsEnabled) {
+                    recordMetrics(endpoint, requestBody, statusCode, responseBody, null, latencyNanos);
+                }
                 return body;
-            } else if (statusCode == 401 || statusCode == 403) {
-                throw new AuthenticationException("Authentication failed: " + body);
-            } else {
-                throw new ApiException("API request failed: " + body, statusCode);
+            } catch (PaymentsenseException e) {
+                if (metricsEnabled) {
+                    recordMetrics(endpoint, requestBody, statusCode, responseBody, e, System.nanoTime() - startNanos);
+                }
+                recordFailure(circuitBreaker, permit, startNanos, e);
+                long backoff = retryHandler.nextBackoffMillis(endpoint, e, attempt);
+                if (backoff < 0) {
+                    throw e;
+                }
+                lastError = e;
+                sleepBeforeRetry(backoff);
             }
+        }
+    }
+
+    /**
+     * Send a single HTTP request and return the response with its raw body.
+     */
+    private HttpResponse<byte[]> sendRequest(HttpRequest request) throws PaymentsenseException {
+        try {
+            return httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
         } catch (IOException e) {
             throw new PaymentsenseException("Network error: " + e.getMessage(), e);
         } catch (InterruptedException e) {
@@ -199,68 +853,478 @@ public class PaymentService {
     }
 
     /**
-     * Serialize an object to JSON.
+     * Wait for a permit from the endpoint's rate limiter, if one is configured.
+     */
+    private void awaitRateLimit(Endpoint endpoint, PaymentsenseException lastError) throws PaymentsenseException {
+        RateLimiter rateLimiter = rateLimiters.get(endpoint);
+        if (rateLimiter == null) {
+            return;
+        }
+        long waitNanos = rateLimiter.reserve();
+        if (waitNanos < 0) {
+            throw lastError != null ? lastError : new RateLimitExceededException(endpoint.getPath());
+        }
+        if (waitNanos > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(waitNanos);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new PaymentsenseException("Request interrupted: " + e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Record a failed attempt with the circuit breaker; interruptions carry no signal
+     * about the API's health and only release the permit.
      */
-    private String serializeToJson(Object object) throws PaymentsenseException {
+    private static void recordFailure(CircuitBreaker circuitBreaker, long permit, long startNanos,
+                                      PaymentsenseException e) {
+        if (e.getCause() instanceof InterruptedException) {
+            circuitBreaker.release(permit);
+        } else {
+            circuitBreaker.onComplete(permit, System.nanoTime() - startNanos, e);
+        }
+    }
+
+    /**
+     * Report a completed exchange to the metrics listener. Network failures are reported
+     * by their underlying I/O exception type.
+     */
+    private void recordMetrics(Endpoint endpoint, byte[] requestBody, int statusCode, byte[] responseBody,
+                               Throwable error, long latencyNanos) {
+        Class<? extends Throwable> errorType = null;
+        if (error != null) {
+            errorType = statusCode < 0 && error.getCause() != null
+                    ? error.getCause().getClass() : error.getClass();
+        }
+        metricsListener.onRequestComplete(endpoint, statusCode, errorType,
+                requestBody == null ? 0 : requestBody.length,
+                responseBody == null ? 0 : responseBody.length,
+                latencyNanos);
+    }
+
+    private static void sleepBeforeRetry(long backoffMillis) throws PaymentsenseException {
         try {
-            return objectMapper.writeValueAsString(object);
-        } catch (Exception e) {
-            throw new PaymentsenseException("Failed to serialize request: " + e.getMessage(), e);
+            Thread.sleep(backoffMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PaymentsenseException("Request interrupted: " + e.getMessage(), e);
         }
     }
 
     /**
-     * Deserialize JSON to an object.
+     * Wait for an asynchronous call on the calling thread, unwrapping its failure.
      */
-    private <T> T deserializeFromJson(String json, Class<T> clazz) throws PaymentsenseException {
+    private static <T> T await(CompletableFuture<T> future) throws PaymentsenseException {
         try {
-            return objectMapper.readValue(json, clazz);
-        } catch (Exception e) {
-            throw new PaymentsenseException("Failed to deserialize response: " + e.getMessage(), e);
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new PaymentsenseException("Request interrupted: " + e.getMessage(), e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof PaymentsenseException) {
+                throw (PaymentsenseException) cause;
+            }
+            throw new PaymentsenseException("Request failed: " + cause.getMessage(), cause);
         }
     }
 
     /**
-     * Validate required fields for payment token.
+     * Execute an HTTP request asynchronously, retrying as allowed by the retry policy,
+     * and deserialize the response body.
+     * <p>
+     * Cancelling the returned future cancels the in-flight HTTP exchange and any
+     * pending retry.
+     * </p>
+     */
+    private <T> CompletableFuture<T> executeRequestAsync(Endpoint endpoint, HttpRequest request,
+                                                         byte[] requestBody, ObjectReader reader) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        if (acquirePermit(result)) {
+            startAsync(endpoint, request, requestBody, reader, result, true);
+        }
+        return result;
+    }
+
+    /**
+     * Take a concurrency permit for a call, returned when the call's future completes.
      *
-     * @param token the payment token to validate
-     * @throws ValidationException if any required field is missing or empty
+     * @return false if the limit is reached, in which case the future has been failed
      */
-    private void validatePaymentToken(PaymentToken token) throws ValidationException {
-        if (token == null) {
-            throw new ValidationException("Payment token cannot be null");
+    private boolean acquirePermit(CompletableFuture<?> result) {
+        if (concurrencyLimiter == null) {
+            return true;
+        }
+        if (!concurrencyLimiter.tryAcquire()) {
+            result.completeExceptionally(
+                    new ConcurrencyLimitExceededException(concurrencyLimiter.getMaxConcurrent()));
+            return false;
         }
+        result.whenComplete((value, error) -> concurrencyLimiter.release());
+        return true;
+    }
 
-        // Validate merchant URL (required)
-        if (token.getMerchantUrl() == null || token.getMerchantUrl().isEmpty()) {
-            throw new ValidationException("Merchant URL is required and cannot be empty");
+    /**
+     * Send the first attempt of a call that already holds its permit. A call that is not
+     * retryable is a single attempt that earns no retry budget and is not counted as a
+     * request, such as a hedge.
+     */
+    private <T> void startAsync(Endpoint endpoint, HttpRequest request, byte[] requestBody, ObjectReader reader,
+                                CompletableFuture<T> result, boolean retryable) {
+        if (retryable) {
+            retryHandler.onRequest();
         }
+        sendRequestAsync(new AsyncCall<>(endpoint, request, requestBody, reader, result, retryable), 1, null);
+    }
 
-        // Validate currency code (required, ISO 4217 numeric code)
-        if (token.getCurrencyCode() == null || token.getCurrencyCode().isEmpty()) {
-            throw new ValidationException("Currency code is required and cannot be empty");
+    /**
+     * Wait for a rate limit permit without holding a thread, then send the attempt.
+     */
+    private <T> void sendRequestAsync(AsyncCall<T> call, int attempt, PaymentsenseException lastError) {
+        RateLimiter rateLimiter = rateLimiters.get(call.endpoint);
+        long waitNanos = rateLimiter == null ? 0 : rateLimiter.reserve();
+        if (waitNanos < 0) {
+            call.result.completeExceptionally(lastError != null
+                    ? lastError : new RateLimitExceededException(call.endpoint.getPath()));
+        } else if (waitNanos == 0) {
+            dispatchAsync(call, attempt, lastError);
+        } else {
+            CompletableFuture.delayedExecutor(waitNanos, TimeUnit.NANOSECONDS, retryExecutor).execute(() -> {
+                if (!call.result.isDone()) {
+                    dispatchAsync(call, attempt, lastError);
+                }
+            });
         }
-        if (!token.getCurrencyCode().matches("^\\d{3}$")) {
-            throw new ValidationException("Currency code must be a 3-digit ISO 4217 numeric code (e.g., 826 for GBP)");
+    }
+
+    /**
+     * Send a single attempt of an asynchronous request, through the interceptor chain if
+     * one is configured.
+     */
+    private <T> void dispatchAsync(AsyncCall<T> call, int attempt, PaymentsenseException lastError) {
+        CircuitBreaker circuitBreaker = circuitBreakers.get(call.endpoint);
+        long permit = circuitBreaker.tryAcquirePermission();
+        if (permit == CircuitBreaker.NOT_PERMITTED) {
+            call.result.completeExceptionally(lastError != null
+                    ? lastError : new CircuitBreakerOpenException(call.endpoint.getPath()));
+            return;
         }
 
-        // Validate amount (required, numeric)
-        if (token.getAmount() == null || token.getAmount().isEmpty()) {
-            throw new ValidationException("Amount is required and cannot be empty");
+        long startNanos = System.nanoTime();
+        CompletableFuture<?> exchange;
+        if (interceptorChain == null) {
+            CompletableFuture<HttpResponse<byte[]>> responseFuture =
+                    httpClient.sendAsync(call.request, HttpResponse.BodyHandlers.ofByteArray());
+            responseFuture.whenComplete((response, error) -> onAttemptComplete(call, attempt, permit, startNanos,
+                    response == null ? -1 : response.statusCode(), response == null ? null : response.body(), error));
+            exchange = responseFuture;
+        } else {
+            CompletableFuture<InterceptorResponse> responseFuture = interceptorChain.executeAsync(
+                    call.endpoint, call.request, call.requestBody, attempt,
+                    request -> httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray()),
+                    this::mapAsyncError);
+            responseFuture.whenComplete((response, error) -> onAttemptComplete(call, attempt, permit, startNanos,
+                    response == null ? -1 : response.getStatusCode(), response == null ? null : response.getBody(),
+                    error));
+            exchange = responseFuture;
         }
-        if (!token.getAmount().matches("^\\d+$")) {
-            throw new ValidationException("Amount must be numeric in minor currency units (e.g., pence)");
+
+        call.result.whenComplete((value, error) -> {
+            if (call.result.isCancelled()) {
+                exchange.cancel(true);
+            }
+        });
+    }
+
+    /**
+     * Record the outcome of an asynchronous attempt, then complete the call or schedule
+     * a retry.
+     */
+    private <T> void onAttemptComplete(AsyncCall<T> call, int attempt, long permit, long startNanos,
+                                       int statusCode, byte[] responseBody, Throwable error) {
+        CircuitBreaker circuitBreaker = circuitBreakers.get(call.endpoint);
+        CompletableFuture<T> result = call.result;
+
+        Throwable failure;
+        byte[] body = null;
+        if (error != null) {
+            failure = mapAsyncError(error);
+        } else {
+            try {
+                body = handleResponse(statusCode, responseBody);
+                failure = null;
+            } catch (PaymentsenseException e) {
+                failure = e;
+            }
+        }
+
+        long latencyNanos = System.nanoTime() - startNanos;
+        if (metricsEnabled && !(failure instanceof CancellationException)) {
+            recordMetrics(call.endpoint, call.requestBody, statusCode, responseBody, failure, latencyNanos);
+        }
+        if (failure == null) {
+            circuitBreaker.onComplete(permit, latencyNanos, null);
+        } else if (failure instanceof PaymentsenseException) {
+            recordFailure(circuitBreaker, permit, startNanos, (PaymentsenseException) failure);
+        } else {
+            circuitBreaker.release(permit);
+        }
+
+        if (result.isDone()) {
+            return;
+        }
+        if (failure == null) {
+            try {
+                result.complete(deserializeFromJson(body, call.reader));
+            } catch (PaymentsenseException e) {
+                result.completeExceptionally(e);
+            }
+            return;
+        }
+
+        long backoff = call.retryable && failure instanceof PaymentsenseException
+                ? retryHandler.nextBackoffMillis(call.endpoint, (PaymentsenseException) failure, attempt)
+                : -1;
+        if (backoff < 0) {
+            result.completeExceptionally(failure);
+            return;
         }
+        Throwable retryFailure = failure;
+        CompletableFuture.delayedExecutor(backoff, TimeUnit.MILLISECONDS, retryExecutor).execute(() -> {
+            if (!result.isDone()) {
+                sendRequestAsync(call, attempt + 1, (PaymentsenseException) retryFailure);
+            }
+        });
+    }
 
-        // Validate transaction type (required)
-        if (token.getTransactionType() == null) {
-            throw new ValidationException("Transaction type is required and cannot be null");
+    /**
+     * Execute a side-effect-free request asynchronously, sending an identical hedge
+     * request if the first has not answered within the hedge delay. The first successful
+     * response wins and the other exchange is cancelled; the call only fails if both do.
+     */
+    private <T> CompletableFuture<T> executeHedgedAsync(Endpoint endpoint, HttpRequest request, ObjectReader reader) {
+        long startNanos = System.nanoTime();
+        long delayNanos = hedger.onRequest();
+        if (delayNanos < 0) {
+            CompletableFuture<T> primary = executeRequestAsync(endpoint, request, null, reader);
+            primary.thenRun(() -> hedger.recordLatency(System.nanoTime() - startNanos));
+            return primary;
         }
 
-        // Validate order ID (required)
-        if (token.getOrderId() == null || token.getOrderId().isEmpty()) {
-            throw new ValidationException("Order ID is required and cannot be empty");
+        // The hedged call holds one concurrency permit for both exchanges
+        CompletableFuture<T> primary = new CompletableFuture<>();
+        HedgedCall<T> call = new HedgedCall<>(endpoint, startNanos, primary);
+        if (!acquirePermit(call.result)) {
+            return call.result;
         }
+        startAsync(endpoint, request, null, reader, primary, true);
+        primary.whenComplete((value, error) -> call.onComplete(value, error, false));
+        CompletableFuture.delayedExecutor(delayNanos, TimeUnit.NANOSECONDS, retryExecutor).execute(() -> {
+            if (call.result.isDone() || !call.reserveHedge()) {
+                return;
+            }
+            if (call.result.isDone() || !hedger.tryAcquire()) {
+                call.releaseHedge();
+                return;
+            }
+            CompletableFuture<T> hedge = new CompletableFuture<>();
+            call.sendHedge(hedge);
+            if (!hedge.isDone()) {
+                // A single attempt: the primary's retries already cover failures
+                startAsync(endpoint, request, null, reader, hedge, false);
+            }
+        });
+        return call.result;
+    }
+
+    /**
+     * State of a hedged call: the original exchange, the hedge once sent, and the number
+     * of exchanges that may still answer.
+     */
+    private final class HedgedCall<T> {
+        private final Endpoint endpoint;
+        private final long startNanos;
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+        private final AtomicInteger outstanding = new AtomicInteger(1);
+        private volatile CompletableFuture<T> hedge;
+        private volatile boolean hedged;
+        private volatile Throwable primaryError;
+
+        HedgedCall(Endpoint endpoint, long startNanos, CompletableFuture<T> primary) {
+            this.endpoint = endpoint;
+            this.startNanos = startNanos;
+            // Whichever way the call completes, including cancellation by the caller, stop both exchanges
+            result.whenComplete((value, error) -> {
+                primary.cancel(true);
+                CompletableFuture<T> sent = hedge;
+                if (sent != null) {
+                    sent.cancel(true);
+                }
+            });
+        }
+
+        /**
+         * Count the hedge as outstanding, unless the original exchange has already failed
+         * and completed the call.
+         */
+        boolean reserveHedge() {
+            int current;
+            do {
+                current = outstanding.get();
+                if (current == 0) {
+                    return false;
+                }
+            } while (!outstanding.compareAndSet(current, current + 1));
+            return true;
+        }
+
+        /**
+         * Undo {@link #reserveHedge()} when the hedge is not sent after all; if the original
+         * exchange failed meanwhile, its failure completes the call.
+         */
+        void releaseHedge() {
+            if (outstanding.decrementAndGet() == 0) {
+                result.completeExceptionally(primaryError);
+            }
+        }
+
+        void sendHedge(CompletableFuture<T> sent) {
+            hedged = true;
+            hedge = sent;
+            sent.whenComplete((value, error) -> onComplete(value, error, true));
+            if (result.isDone()) {
+                sent.cancel(true);
+            }
+        }
+
+        void onComplete(T value, Throwable error, boolean fromHedge) {
+            if (error == null) {
+                if (!fromHedge) {
+                    hedger.recordLatency(System.nanoTime() - startNanos);
+                }
+                if (result.complete(value)) {
+                    if (fromHedge) {
+                        // The original is cancelled without an answer; what it took so far is
+                        // still a lower bound on its latency
+                        hedger.recordLatency(System.nanoTime() - startNanos);
+                    }
+                    reportHedge(fromHedge);
+                }
+            } else {
+                if (!fromHedge) {
+                    primaryError = error;
+                }
+                if (outstanding.decrementAndGet() == 0 && result.completeExceptionally(error)) {
+                    reportHedge(false);
+                }
+            }
+        }
+
+        private void reportHedge(boolean won) {
+            if (!hedged) {
+                return;
+            }
+            hedger.onHedgeComplete(won);
+            if (metricsEnabled) {
+                metricsListener.onHedge(endpoint, won);
+            }
+        }
+    }
+
+    /**
+     * The fixed inputs of an asynchronous call, shared by all of its attempts.
+     */
+    private static final class AsyncCall<T> {
+        private final Endpoint endpoint;
+        private final HttpRequest request;
+        private final byte[] requestBody;
+        private final ObjectReader reader;
+        private final CompletableFuture<T> result;
+        private final boolean retryable;
+
+        AsyncCall(Endpoint endpoint, HttpRequest request, byte[] requestBody, ObjectReader reader,
+                  CompletableFuture<T> result, boolean retryable) {
+            this.endpoint = endpoint;
+            this.request = request;
+            this.requestBody = requestBody;
+            this.reader = reader;
+            this.result = result;
+            this.retryable = retryable;
+        }
+    }
+
+    /**
+     * Map the HTTP status of a response to its body or a PaymentsenseException.
+     * <p>
+     * Successful bodies are handed to Jackson as raw bytes; the body is only decoded
+     * to text for the error message.
+     * </p>
+     */
+    private byte[] handleResponse(int statusCode, byte[] responseBody) throws PaymentsenseException {
+        if (statusCode == 200) {
+            return responseBody;
+        }
+
+        String body = responseBody == null ? "" : new String(responseBody, StandardCharsets.UTF_8);
+        if (statusCode == 401 || statusCode == 403) {
+            throw new AuthenticationException("Authentication failed: " + body);
+        } else {
+            throw new ApiException("API request failed: " + body, statusCode);
+        }
+    }
+
+    /**
+     * Map a failure from an asynchronous exchange to the PaymentsenseException hierarchy.
+     */
+    private Throwable mapAsyncError(Throwable error) {
+        Throwable cause = error;
+        while ((cause instanceof CompletionException || cause instanceof ExecutionException)
+                && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+
+        if (cause instanceof PaymentsenseException || cause instanceof CancellationException) {
+            return cause;
+        } else if (cause instanceof IOException) {
+            return new PaymentsenseException("Network error: " + cause.getMessage(), cause);
+        } else {
+            return new PaymentsenseException("Request failed: " + cause.getMessage(), cause);
+        }
+    }
+
+    /**
+     * Serialize an object to UTF-8 encoded JSON with a pre-bound writer.
+     */
+    private byte[] serializeToJson(ObjectWriter writer, Object object) throws PaymentsenseException {
+        try {
+            return writer.writeValueAsBytes(object);
+        } catch (Exception e) {
+            throw new PaymentsenseException("Failed to serialize request: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Deserialize UTF-8 encoded JSON to an object with a pre-bound reader.
+     */
+    private <T> T deserializeFromJson(byte[] json, ObjectReader reader) throws PaymentsenseException {
+        try {
+            return reader.readValue(json);
+        } catch (Exception e) {
+            throw new PaymentsenseException("Failed to deserialize response: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Validate required fields for payment token.
+     *
+     * @param token the payment token to validate
+     * @throws ValidationException listing every required field that is missing or invalid
+     */
+    private void validatePaymentToken(PaymentToken token) throws ValidationException {
+        PaymentTokenValidator.getInstance().check(token);
     }
 
     /**
@@ -275,12 +1339,13 @@ public class PaymentService {
             token.setWebhookUrl(config.getWebhookUrl());
         }
 
-        // Fill gateway credentials from config if not provided
-        if (token.getGatewayUsername() == null && config.getGatewayUsername() != null) {
-            token.setGatewayUsername(config.getGatewayUsername());
+        // Fill gateway credentials from the current credentials if not provided
+        Credentials credentials = credentialProvider.getCredentials();
+        if (token.getGatewayUsername() == null && credentials.getGatewayUsername() != null) {
+            token.setGatewayUsername(credentials.getGatewayUsername());
         }
-        if (token.getGatewayPassword() == null && config.getGatewayPassword() != null) {
-            token.setGatewayPassword(config.getGatewayPassword());
+        if (token.getGatewayPassword() == null && credentials.getGatewayPassword() != null) {
+            token.setGatewayPassword(credentials.getGatewayPassword());
         }
     }
 }
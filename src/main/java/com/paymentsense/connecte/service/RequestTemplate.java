@@ -0,0 +1,108 @@
+package com.paymentsense.connecte.service;
+
+import com.paymentsense.connecte.config.ClientConfig;
+import com.paymentsense.connecte.credentials.CredentialProvider;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Pre-computed request settings for a single endpoint.
+ * <p>
+ * Created once per client so that the base URI, the header set and the timeout are
+ * resolved up front; building a request only adds the path parameter, the body and the
+ * current {@code Authorization} header.
+ * </p>
+ */
+final class RequestTemplate {
+    private final Endpoint endpoint;
+    private final String baseUrl;
+    private final URI uri;
+    private final String[] headers;
+    private final Duration timeout;
+    private final CredentialProvider credentialProvider;
+
+    /**
+     * Create a template for the given endpoint.
+     *
+     * @param config             the client configuration
+     * @param endpoint           the endpoint
+     * @param credentialProvider the source of the API key
+     */
+    RequestTemplate(ClientConfig config, Endpoint endpoint, CredentialProvider credentialProvider) {
+        this.endpoint = endpoint;
+        this.credentialProvider = credentialProvider;
+        this.baseUrl = config.getApiUrl() + endpoint.getPath() + "/";
+        this.uri = URI.create(config.getApiUrl() + endpoint.getPath());
+        this.headers = buildHeaders(config);
+        this.timeout = config.getTimeout();
+    }
+
+    /**
+     * Build a GET request.
+     *
+     * @param pathParam the path parameter, or {@code null} for the endpoint root
+     * @return the request
+     */
+    HttpRequest get(String pathParam) {
+        return newBuilder(pathParam)
+                .GET()
+                .build();
+    }
+
+    /**
+     * Build a POST request.
+     *
+     * @param pathParam the path parameter, or {@code null} for the endpoint root
+     * @param body      the UTF-8 encoded JSON request body
+     * @return the request
+     */
+    HttpRequest post(String pathParam, byte[] body) {
+        return newBuilder(pathParam)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+                .build();
+    }
+
+    /**
+     * Get the endpoint this template builds requests for.
+     *
+     * @return the endpoint
+     */
+    Endpoint endpoint() {
+        return endpoint;
+    }
+
+    private HttpRequest.Builder newBuilder(String pathParam) {
+        URI target = pathParam == null ? uri : URI.create(baseUrl.concat(pathParam));
+        return HttpRequest.newBuilder(target)
+                .headers(headers)
+                .header("Authorization", credentialProvider.getCredentials().getAuthorizationHeader())
+                .timeout(timeout);
+    }
+
+    /**
+     * Build the immutable header name/value pairs sent with every request, apart from
+     * {@code Authorization}, which changes when the credentials are rotated.
+     */
+    private static String[] buildHeaders(ClientConfig config) {
+        List<String> headers = new ArrayList<>();
+        headers.add("Content-Type");
+        headers.add("application/json");
+
+        // Add sandbox headers if needed
+        if (config.isSandbox()) {
+            headers.add("IS-SANDBOX");
+            headers.add("true");
+        }
+
+        // Add IP forwarding headers if needed
+        if (config.getUserIpAddress() != null && !config.getUserIpAddress().isEmpty()) {
+            headers.add("X-Forwarded-For");
+            headers.add(config.getUserIpAddress());
+        }
+        return headers.toArray(new String[0]);
+    }
+}
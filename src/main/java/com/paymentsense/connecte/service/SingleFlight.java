@@ -0,0 +1,179 @@
+package com.paymentsense.connecte.service;
+
+import com.paymentsense.connecte.exception.PaymentsenseException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent calls for the same key into a single in-flight call.
+ * <p>
+ * The first caller for a key runs the call; callers arriving while it is in flight wait
+ * for and share its result. Blocking and asynchronous callers can be mixed freely. An
+ * asynchronous caller cancelling its future only cancels the shared call once every
+ * waiting caller has cancelled.
+ * </p>
+ *
+ * @param <K> the key type
+ * @param <V> the result type
+ */
+final class SingleFlight<K, V> {
+    /**
+     * A blocking call that may fail with a PaymentsenseException.
+     *
+     * @param <V> the result type
+     */
+    @FunctionalInterface
+    interface Call<V> {
+        V call() throws PaymentsenseException;
+    }
+
+    private final ConcurrentHashMap<K, Flight<V>> flights = new ConcurrentHashMap<>();
+    private final LongAdder coalesced = new LongAdder();
+
+    /**
+     * Run a blocking call, or wait for the one already in flight for the same key.
+     *
+     * @param key  the key identifying the call
+     * @param call the call to run if none is in flight
+     * @return the shared result
+     * @throws PaymentsenseException if the shared call fails
+     */
+    V execute(K key, Call<V> call) throws PaymentsenseException {
+        Flight<V> existing = flights.get(key);
+        if (existing == null) {
+            Flight<V> flight = new Flight<>();
+            existing = flights.putIfAbsent(key, flight);
+            if (existing == null) {
+                return lead(key, flight, call);
+            }
+        }
+        coalesced.increment();
+        return existing.await();
+    }
+
+    /**
+     * Start an asynchronous call, or join the one already in flight for the same key.
+     *
+     * @param key  the key identifying the call
+     * @param call supplier starting the call if none is in flight
+     * @return a future completing with the shared result
+     */
+    CompletableFuture<V> executeAsync(K key, Supplier<CompletableFuture<V>> call) {
+        Flight<V> existing = flights.get(key);
+        if (existing == null) {
+            Flight<V> flight = new Flight<>();
+            existing = flights.putIfAbsent(key, flight);
+            if (existing == null) {
+                CompletableFuture<V> source;
+                try {
+                    source = call.get();
+                } catch (RuntimeException e) {
+                    source = CompletableFuture.failedFuture(e);
+                }
+                flight.source = source;
+                source.whenComplete((value, error) -> {
+                    flights.remove(key, flight);
+                    if (error != null) {
+                        flight.result.completeExceptionally(unwrap(error));
+                    } else {
+                        flight.result.complete(value);
+                    }
+                });
+                return flight.subscribe();
+            }
+        }
+        coalesced.increment();
+        return existing.subscribe();
+    }
+
+    /**
+     * Get the number of calls that joined an in-flight call instead of making their own.
+     *
+     * @return the coalesced call count
+     */
+    long getCoalescedCount() {
+        return coalesced.sum();
+    }
+
+    private V lead(K key, Flight<V> flight, Call<V> call) throws PaymentsenseException {
+        V value;
+        try {
+            value = call.call();
+        } catch (PaymentsenseException | RuntimeException e) {
+            flights.remove(key, flight);
+            flight.result.completeExceptionally(e);
+            throw e;
+        }
+        flights.remove(key, flight);
+        flight.result.complete(value);
+        return value;
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        Throwable cause = error;
+        while ((cause instanceof CompletionException || cause instanceof ExecutionException)
+                && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+
+    /**
+     * A single in-flight call and the callers waiting for it.
+     */
+    private static final class Flight<V> {
+        final CompletableFuture<V> result = new CompletableFuture<>();
+        final AtomicInteger waiters = new AtomicInteger();
+        volatile CompletableFuture<V> source;
+
+        CompletableFuture<V> subscribe() {
+            waiters.incrementAndGet();
+            CompletableFuture<V> mine = new CompletableFuture<>();
+            result.whenComplete((value, error) -> {
+                if (error != null) {
+                    mine.completeExceptionally(error);
+                } else {
+                    mine.complete(value);
+                }
+            });
+            mine.whenComplete((value, error) -> {
+                if (mine.isCancelled()) {
+                    unsubscribe();
+                }
+            });
+            return mine;
+        }
+
+        V await() throws PaymentsenseException {
+            waiters.incrementAndGet();
+            try {
+                return result.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                unsubscribe();
+                throw new PaymentsenseException("Request interrupted: " + e.getMessage(), e);
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof PaymentsenseException) {
+                    throw (PaymentsenseException) cause;
+                } else if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+                throw new PaymentsenseException("Request failed: " + cause.getMessage(), cause);
+            }
+        }
+
+        private void unsubscribe() {
+            CompletableFuture<V> call = source;
+            if (waiters.decrementAndGet() == 0 && call != null) {
+                call.cancel(true);
+            }
+        }
+    }
+}
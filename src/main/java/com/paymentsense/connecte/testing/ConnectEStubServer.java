@@ -0,0 +1,308 @@
+package com.paymentsense.connecte.testing;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-JVM stand-in for the Connect-E REST API, for load and resilience testing.
+ * <p>
+ * Serves {@code POST /access-tokens}, {@code GET /payments/{id}} and
+ * {@code POST /cross-reference-payments/{token}} with bodies shaped like the real API,
+ * on the loopback interface. Latency, 401s, server errors and slow bodies are injected
+ * according to the {@link StubServerConfig}. Delays are scheduled rather than slept, so
+ * a small worker pool can hold many slow responses in flight.
+ * </p>
+ * <pre>{@code
+ * try (ConnectEStubServer stub = ConnectEStubServer.start(StubServerConfig.builder()
+ *         .latency(LatencyDistribution.logNormal(Duration.ofMillis(40), Duration.ofMillis(250)))
+ *         .errorRate(0.01)
+ *         .build())) {
+ *     PaymentsenseClient client = PaymentsenseClient.builder()
+ *             .apiKey("any")
+ *             .baseUrl(stub.getBaseUrl())
+ *             .build();
+ *     ...
+ * }
+ * }</pre>
+ */
+public final class ConnectEStubServer implements AutoCloseable {
+    private static final String ACCESS_TOKENS = "/access-tokens";
+    private static final String PAYMENTS = "/payments/";
+    private static final String CROSS_REFERENCE_PAYMENTS = "/cross-reference-payments/";
+
+    private static final byte[] CROSS_REFERENCE_RESPONSE =
+            utf8("{\"statusCode\":0,\"authCode\":\"123456\",\"message\":\"Transaction successful\"}");
+    private static final byte[] UNAUTHORIZED_RESPONSE = utf8("{\"message\":\"Unauthorized\"}");
+    private static final byte[] ERROR_RESPONSE = utf8("{\"message\":\"Injected failure\"}");
+    private static final byte[] NOT_FOUND_RESPONSE = utf8("{\"message\":\"Not found\"}");
+    private static final byte[] METHOD_NOT_ALLOWED_RESPONSE = utf8("{\"message\":\"Method not allowed\"}");
+
+    private final StubServerConfig config;
+    private final HttpServer server;
+    private final ScheduledThreadPoolExecutor workers;
+    private final String expectedAuthorization;
+    private final AtomicLong tokenSequence = new AtomicLong();
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder unauthorized = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder slowBodies = new LongAdder();
+
+    private ConnectEStubServer(StubServerConfig config) throws IOException {
+        this.config = config;
+        this.expectedAuthorization = config.getApiKey() == null ? null : "Bearer " + config.getApiKey();
+
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.workers = new ScheduledThreadPoolExecutor(config.getWorkerThreads(), runnable -> {
+            Thread thread = new Thread(runnable, "connect-e-stub-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.workers.setRemoveOnCancelPolicy(true);
+
+        this.server = HttpServer.create(
+                new InetSocketAddress(InetAddress.getLoopbackAddress(), config.getPort()), config.getBacklog());
+        this.server.createContext("/", this::handle);
+        this.server.setExecutor(workers);
+    }
+
+    /**
+     * Start a stub server.
+     *
+     * @param config the server configuration
+     * @return the running server
+     * @throws IOException              if the port cannot be bound
+     * @throws IllegalArgumentException if the configuration is invalid
+     */
+    public static ConnectEStubServer start(StubServerConfig config) throws IOException {
+        config.validate();
+        if (config.isTcpNoDelay()) {
+            disableNagle();
+        }
+        ConnectEStubServer stub = new ConnectEStubServer(config);
+        stub.server.start();
+        return stub;
+    }
+
+    /**
+     * Start a stub server with no latency or faults.
+     *
+     * @return the running server
+     * @throws IOException if a port cannot be bound
+     */
+    public static ConnectEStubServer start() throws IOException {
+        return start(StubServerConfig.builder().build());
+    }
+
+    /**
+     * Get the URL to pass to the client builder's {@code baseUrl}.
+     *
+     * @return the base URL, e.g. {@code http://127.0.0.1:54321}
+     */
+    public String getBaseUrl() {
+        return "http://127.0.0.1:" + getPort();
+    }
+
+    /**
+     * Get the bound port.
+     *
+     * @return the port
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Get the number of requests received.
+     *
+     * @return the request count
+     */
+    public long getRequestCount() {
+        return requests.sum();
+    }
+
+    /**
+     * Get the number of requests answered with 401.
+     *
+     * @return the unauthorized count
+     */
+    public long getUnauthorizedCount() {
+        return unauthorized.sum();
+    }
+
+    /**
+     * Get the number of injected server errors.
+     *
+     * @return the error count
+     */
+    public long getErrorCount() {
+        return errors.sum();
+    }
+
+    /**
+     * Get the number of responses sent as slow bodies.
+     *
+     * @return the slow body count
+     */
+    public long getSlowBodyCount() {
+        return slowBodies.sum();
+    }
+
+    /**
+     * Stop the server and abandon any delayed responses.
+     */
+    @Override
+    public void close() {
+        server.stop(0);
+        workers.shutdownNow();
+    }
+
+    /**
+     * The JDK server writes headers and body separately; with Nagle's algorithm on, every
+     * response then waits out the client's delayed ACK (about 40 ms). The setting is read
+     * once per JVM, so it only takes effect if no server was created before. A value the
+     * application set itself is kept.
+     */
+    private static void disableNagle() {
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.increment();
+        try (InputStream in = exchange.getRequestBody()) {
+            in.readAllBytes();
+        }
+
+        String method = exchange.getRequestMethod();
+        String path = exchange.getRequestURI().getPath();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        int status;
+        byte[] body;
+        if (path.equals(ACCESS_TOKENS)) {
+            status = "POST".equals(method) ? 200 : 405;
+            body = status == 200 ? paymentTokenResponse() : METHOD_NOT_ALLOWED_RESPONSE;
+        } else if (path.startsWith(PAYMENTS) && path.length() > PAYMENTS.length()) {
+            status = "GET".equals(method) ? 200 : 405;
+            body = status == 200 ? paymentInfoResponse(path.substring(PAYMENTS.length()))
+                    : METHOD_NOT_ALLOWED_RESPONSE;
+        } else if (path.startsWith(CROSS_REFERENCE_PAYMENTS) && path.length() > CROSS_REFERENCE_PAYMENTS.length()) {
+            status = "POST".equals(method) ? 200 : 405;
+            body = status == 200 ? CROSS_REFERENCE_RESPONSE : METHOD_NOT_ALLOWED_RESPONSE;
+        } else {
+            status = 404;
+            body = NOT_FOUND_RESPONSE;
+        }
+
+        if (status == 200) {
+            String authorization = exchange.getRequestHeaders().getFirst("Authorization");
+            if ((expectedAuthorization != null && !expectedAuthorization.equals(authorization))
+                    || random.nextDouble() < config.getUnauthorizedRate()) {
+                unauthorized.increment();
+                status = 401;
+                body = UNAUTHORIZED_RESPONSE;
+            } else if (random.nextDouble() < config.getErrorRate()) {
+                errors.increment();
+                status = config.getErrorStatusCode();
+                body = ERROR_RESPONSE;
+            }
+        }
+
+        boolean slow = random.nextDouble() < config.getSlowBodyRate();
+        if (slow) {
+            slowBodies.increment();
+        }
+
+        int responseStatus = status;
+        byte[] responseBody = body;
+        long delayNanos = config.getLatency().nextNanos();
+        if (delayNanos > 0) {
+            workers.schedule(() -> respond(exchange, responseStatus, responseBody, slow),
+                    delayNanos, TimeUnit.NANOSECONDS);
+        } else {
+            respond(exchange, responseStatus, responseBody, slow);
+        }
+    }
+
+    private void respond(HttpExchange exchange, int status, byte[] body, boolean slow) {
+        try {
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(status, body.length);
+            if (slow) {
+                writeChunk(exchange, body, 0);
+            } else {
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            }
+        } catch (IOException e) {
+            exchange.close();
+        }
+    }
+
+    /**
+     * Write one chunk of a slow body and schedule the next, so no thread sleeps between chunks.
+     */
+    private void writeChunk(HttpExchange exchange, byte[] body, int offset) {
+        try {
+            int length = Math.min(config.getSlowBodyChunkSize(), body.length - offset);
+            OutputStream out = exchange.getResponseBody();
+            out.write(body, offset, length);
+            out.flush();
+            int next = offset + length;
+            if (next >= body.length) {
+                out.close();
+            } else {
+                workers.schedule(() -> writeChunk(exchange, body, next),
+                        config.getSlowBodyChunkDelay().toNanos(), TimeUnit.NANOSECONDS);
+            }
+        } catch (IOException e) {
+            exchange.close();
+        }
+    }
+
+    private byte[] paymentTokenResponse() {
+        long expiresAt = Instant.now().getEpochSecond() + 1800;
+        return utf8("{\"id\":\"stub_" + Long.toHexString(tokenSequence.incrementAndGet())
+                + "\",\"expiresAt\":" + expiresAt + "}");
+    }
+
+    private byte[] paymentInfoResponse(String paymentId) {
+        StringBuilder json = new StringBuilder(512)
+                .append("{\"transactionDateTime\":\"").append(Instant.now()).append('"')
+                .append(",\"statusCode\":").append(config.getPaymentStatusCode())
+                .append(",\"message\":\"")
+                .append(config.getPaymentStatusCode() == 0 ? "Transaction successful" : "Transaction declined")
+                .append('"')
+                .append(",\"crossReference\":\"XREF-").append(paymentId).append('"')
+                .append(",\"authCode\":\"123456\"")
+                .append(",\"cardNumber\":\"************1234\"")
+                .append(",\"expiryDate\":\"12/30\"")
+                .append(",\"cardType\":\"VISA\"")
+                .append(",\"cardName\":\"Test Cardholder\"")
+                .append(",\"billingAddress\":{\"address1\":\"1 Test Street\",\"city\":\"London\",")
+                .append("\"postcode\":\"EC1A 1AA\",\"countryCode\":\"GB\"}")
+                .append(",\"userEmailAddress\":\"test@example.com\"}");
+        return utf8(json.toString());
+    }
+
+    private static byte[] utf8(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
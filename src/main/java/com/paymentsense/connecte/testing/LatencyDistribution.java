@@ -0,0 +1,80 @@
+package com.paymentsense.connecte.testing;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Source of simulated server latency for {@link ConnectEStubServer}.
+ */
+@FunctionalInterface
+public interface LatencyDistribution {
+    /**
+     * z-score of the 99th percentile of a standard normal distribution
+     */
+    double Z_99 = 2.3263478740408408;
+
+    /**
+     * Draw the next latency.
+     *
+     * @return the latency in nanoseconds, never negative
+     */
+    long nextNanos();
+
+    /**
+     * No added latency.
+     *
+     * @return the distribution
+     */
+    static LatencyDistribution none() {
+        return () -> 0L;
+    }
+
+    /**
+     * The same latency for every request.
+     *
+     * @param latency the latency
+     * @return the distribution
+     */
+    static LatencyDistribution fixed(Duration latency) {
+        long nanos = latency.toNanos();
+        if (nanos < 0) {
+            throw new IllegalArgumentException("Latency cannot be negative");
+        }
+        return () -> nanos;
+    }
+
+    /**
+     * Latency drawn uniformly between two bounds.
+     *
+     * @param min the lower bound (inclusive)
+     * @param max the upper bound (inclusive)
+     * @return the distribution
+     */
+    static LatencyDistribution uniform(Duration min, Duration max) {
+        long minNanos = min.toNanos();
+        long maxNanos = max.toNanos();
+        if (minNanos < 0 || maxNanos < minNanos) {
+            throw new IllegalArgumentException("Latency bounds must satisfy 0 <= min <= max");
+        }
+        return () -> ThreadLocalRandom.current().nextLong(minNanos, maxNanos + 1);
+    }
+
+    /**
+     * Log-normally distributed latency, the usual shape of real API response times:
+     * most calls near the median with a long tail.
+     *
+     * @param median the median latency
+     * @param p99    the 99th percentile latency
+     * @return the distribution
+     */
+    static LatencyDistribution logNormal(Duration median, Duration p99) {
+        long medianNanos = median.toNanos();
+        long p99Nanos = p99.toNanos();
+        if (medianNanos <= 0 || p99Nanos < medianNanos) {
+            throw new IllegalArgumentException("Latency percentiles must satisfy 0 < median <= p99");
+        }
+        double mu = Math.log(medianNanos);
+        double sigma = (Math.log(p99Nanos) - mu) / Z_99;
+        return () -> (long) Math.exp(mu + sigma * ThreadLocalRandom.current().nextGaussian());
+    }
+}
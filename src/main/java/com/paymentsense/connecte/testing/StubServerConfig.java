@@ -0,0 +1,132 @@
+package com.paymentsense.connecte.testing;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.Duration;
+
+/**
+ * Configuration for {@link ConnectEStubServer}.
+ * <p>
+ * Fault rates are probabilities in {@code [0, 1]} drawn independently per request;
+ * authentication failures are checked first, then server errors.
+ * </p>
+ */
+@Data
+@Builder
+public class StubServerConfig {
+    /**
+     * Port to listen on; 0 picks a free port
+     */
+    @Builder.Default
+    private final int port = 0;
+
+    /**
+     * Number of threads writing responses
+     */
+    @Builder.Default
+    private final int workerThreads = 16;
+
+    /**
+     * Listen backlog of the server socket
+     */
+    @Builder.Default
+    private final int backlog = 1024;
+
+    /**
+     * Simulated processing time before the response is sent
+     */
+    @Builder.Default
+    private final LatencyDistribution latency = LatencyDistribution.none();
+
+    /**
+     * Expected API key; when set, any other bearer token is rejected with 401
+     */
+    private final String apiKey;
+
+    /**
+     * Probability of answering 401 regardless of the API key
+     */
+    @Builder.Default
+    private final double unauthorizedRate = 0.0;
+
+    /**
+     * Probability of answering with {@link #errorStatusCode}
+     */
+    @Builder.Default
+    private final double errorRate = 0.0;
+
+    /**
+     * HTTP status returned for injected server errors
+     */
+    @Builder.Default
+    private final int errorStatusCode = 503;
+
+    /**
+     * Probability of trickling the response body out in small chunks
+     */
+    @Builder.Default
+    private final double slowBodyRate = 0.0;
+
+    /**
+     * Pause between chunks of a slow body
+     */
+    @Builder.Default
+    private final Duration slowBodyChunkDelay = Duration.ofMillis(50);
+
+    /**
+     * Size in bytes of each chunk of a slow body
+     */
+    @Builder.Default
+    private final int slowBodyChunkSize = 16;
+
+    /**
+     * Status code reported by {@code /payments/{id}} (0 = successful)
+     */
+    @Builder.Default
+    private final int paymentStatusCode = 0;
+
+    /**
+     * Whether to disable Nagle's algorithm on the server's connections. The JDK server
+     * only reads this from the JVM-wide {@code sun.net.httpserver.nodelay} property, once,
+     * so enabling it affects every {@code HttpServer} in the JVM and only works if none
+     * was created before; meant for benchmark and test JVMs
+     */
+    @Builder.Default
+    private final boolean tcpNoDelay = false;
+
+    /**
+     * Validate the configuration.
+     *
+     * @throws IllegalArgumentException if the configuration is invalid
+     */
+    public void validate() {
+        if (port < 0 || port > 65535) {
+            throw new IllegalArgumentException("Port must be between 0 and 65535");
+        }
+        if (workerThreads < 1) {
+            throw new IllegalArgumentException("Worker threads must be at least 1");
+        }
+        if (latency == null) {
+            throw new IllegalArgumentException("Latency distribution cannot be null");
+        }
+        checkRate(unauthorizedRate, "Unauthorized rate");
+        checkRate(errorRate, "Error rate");
+        checkRate(slowBodyRate, "Slow body rate");
+        if (errorStatusCode < 400 || errorStatusCode > 599) {
+            throw new IllegalArgumentException("Error status code must be a 4xx or 5xx code");
+        }
+        if (slowBodyChunkDelay == null || slowBodyChunkDelay.isNegative()) {
+            throw new IllegalArgumentException("Slow body chunk delay cannot be negative");
+        }
+        if (slowBodyChunkSize < 1) {
+            throw new IllegalArgumentException("Slow body chunk size must be at least 1");
+        }
+    }
+
+    private static void checkRate(double rate, String name) {
+        if (!(rate >= 0.0 && rate <= 1.0)) {
+            throw new IllegalArgumentException(name + " must be between 0 and 1");
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.paymentsense.connecte.validation;
+
+import com.paymentsense.connecte.exception.ValidationException;
+import com.paymentsense.connecte.model.PaymentToken;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Validates the required fields of a {@link PaymentToken}.
+ * <p>
+ * The rules are built once and checked in a single pass, so every violation is
+ * reported together. Numeric fields are checked with plain character scans rather
+ * than regular expressions, and a valid token is checked without allocating.
+ * </p>
+ * <p>
+ * The validator is stateless and thread-safe. It can be used on its own, e.g. to
+ * reject bad tokens before they reach the SDK:
+ * </p>
+ * <pre>{@code
+ * List<String> violations = PaymentTokenValidator.getInstance().validate(token);
+ * }</pre>
+ */
+public final class PaymentTokenValidator {
+    private static final PaymentTokenValidator INSTANCE = new PaymentTokenValidator();
+
+    /**
+     * A single validation rule.
+     */
+    @FunctionalInterface
+    private interface Rule {
+        /**
+         * Check the token.
+         *
+         * @param token the token, never null
+         * @return the violation message, or {@code null} if the rule passes
+         */
+        String check(PaymentToken token);
+    }
+
+    private static final Rule[] RULES = {
+        // Validate merchant URL (required)
+        token -> isEmpty(token.getMerchantUrl())
+                ? "Merchant URL is required and cannot be empty" : null,
+
+        // Validate currency code (required, ISO 4217 numeric code)
+        token -> isEmpty(token.getCurrencyCode())
+                ? "Currency code is required and cannot be empty"
+                : !isDigits(token.getCurrencyCode(), 3)
+                ? "Currency code must be a 3-digit ISO 4217 numeric code (e.g., 826 for GBP)" : null,
+
+        // Validate amount (required, numeric)
+        token -> isEmpty(token.getAmount())
+                ? "Amount is required and cannot be empty"
+                : !isDigits(token.getAmount(), -1)
+                ? "Amount must be numeric in minor currency units (e.g., pence)" : null,
+
+        // Validate transaction type (required)
+        token -> token.getTransactionType() == null
+                ? "Transaction type is required and cannot be null" : null,
+
+        // Validate order ID (required)
+        token -> isEmpty(token.getOrderId())
+                ? "Order ID is required and cannot be empty" : null
+    };
+
+    private PaymentTokenValidator() {
+    }
+
+    /**
+     * Get the shared validator instance.
+     *
+     * @return the validator
+     */
+    public static PaymentTokenValidator getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Validate a payment token.
+     *
+     * @param token the payment token to validate
+     * @return every violation found, in field order; empty if the token is valid
+     */
+    public List<String> validate(PaymentToken token) {
+        if (token == null) {
+            return Collections.singletonList("Payment token cannot be null");
+        }
+
+        List<String> violations = null;
+        for (Rule rule : RULES) {
+            String violation = rule.check(token);
+            if (violation != null) {
+                if (violations == null) {
+                    violations = new ArrayList<>(RULES.length);
+                }
+                violations.add(violation);
+            }
+        }
+        return violations == null ? Collections.emptyList() : violations;
+    }
+
+    /**
+     * Check whether a payment token is valid.
+     *
+     * @param token the payment token to validate
+     * @return true if no rule is violated
+     */
+    public boolean isValid(PaymentToken token) {
+        return validate(token).isEmpty();
+    }
+
+    /**
+     * Validate a payment token, throwing if any rule is violated.
+     *
+     * @param token the payment token to validate
+     * @throws ValidationException listing every violation found
+     */
+    public void check(PaymentToken token) throws ValidationException {
+        List<String> violations = validate(token);
+        if (!violations.isEmpty()) {
+            throw new ValidationException(violations);
+        }
+    }
+
+    private static boolean isEmpty(String value) {
+        return value == null || value.isEmpty();
+    }
+
+    /**
+     * Check that a string consists only of ASCII digits.
+     *
+     * @param value          the non-empty string to check
+     * @param requiredLength the exact length required, or -1 for any length
+     */
+    private static boolean isDigits(String value, int requiredLength) {
+        int length = value.length();
+        if (requiredLength >= 0 && length != requiredLength) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,88 @@
+package com.paymentsense.connecte.webhook;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.Duration;
+
+/**
+ * Configuration for dropping redelivered webhook notifications.
+ * <p>
+ * Recently seen notifications are remembered exactly in a table of
+ * {@link #exactCapacity} entries. Behind it, a Bloom filter sized for
+ * {@link #expectedEventsPerWindow} events at {@link #falsePositiveRate} remembers
+ * everything seen in the last one to two {@link #window}s. Memory is fixed by these
+ * settings, not by traffic.
+ * </p>
+ */
+@Data
+@Builder
+public class DeduplicationConfig {
+    /**
+     * Whether de-duplication is enabled
+     */
+    @Builder.Default
+    private final boolean enabled = true;
+
+    /**
+     * How long the Bloom filter remembers a notification at least (at most twice this)
+     */
+    @Builder.Default
+    private final Duration window = Duration.ofHours(1);
+
+    /**
+     * Number of distinct notifications expected per window; more raises the false-positive rate
+     */
+    @Builder.Default
+    private final int expectedEventsPerWindow = 100_000;
+
+    /**
+     * Target probability that a new notification is taken for a duplicate by one Bloom
+     * filter generation; two are consulted, so the effective rate is up to twice this
+     */
+    @Builder.Default
+    private final double falsePositiveRate = 1e-6;
+
+    /**
+     * Number of recent notifications remembered exactly (rounded up to a power of two)
+     */
+    @Builder.Default
+    private final int exactCapacity = 16_384;
+
+    /**
+     * Whether notifications only the Bloom filter has seen are dropped. Off by default,
+     * since a false positive would lose a real notification for good; such notifications
+     * are then delivered and just counted
+     */
+    @Builder.Default
+    private final boolean dropProbableDuplicates = false;
+
+    /**
+     * Get a configuration with de-duplication turned off.
+     *
+     * @return a disabled configuration
+     */
+    public static DeduplicationConfig disabled() {
+        return DeduplicationConfig.builder().enabled(false).build();
+    }
+
+    /**
+     * Validate the configuration.
+     *
+     * @throws IllegalArgumentException if the configuration is invalid
+     */
+    public void validate() {
+        if (window == null || window.isNegative() || window.isZero()) {
+            throw new IllegalArgumentException("De-duplication window must be positive");
+        }
+        if (expectedEventsPerWindow < 1) {
+            throw new IllegalArgumentException("Expected events per window must be at least 1");
+        }
+        if (!(falsePositiveRate > 0.0 && falsePositiveRate < 1.0)) {
+            throw new IllegalArgumentException("False-positive rate must be between 0 and 1 (exclusive)");
+        }
+        if (exactCapacity < 8 || exactCapacity > (1 << 26)) {
+            throw new IllegalArgumentException("Exact capacity must be between 8 and 67108864");
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.paymentsense.connecte.webhook;
+
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Point-in-time snapshot of webhook de-duplication counters.
+ */
+@Getter
+@ToString
+public final class DeduplicationStats {
+    /**
+     * Notifications seen for the first time
+     */
+    private final long uniqueEvents;
+
+    /**
+     * Notifications found in the exact recent-keys table
+     */
+    private final long duplicates;
+
+    /**
+     * Notifications only the Bloom filter had seen: older redeliveries or false positives
+     */
+    private final long probableDuplicates;
+
+    /**
+     * Recent keys pushed out of the exact table to make room
+     */
+    private final long exactEvictions;
+
+    /**
+     * False-positive rate the Bloom filter was sized for
+     */
+    private final double configuredFalsePositiveRate;
+
+    /**
+     * False-positive rate implied by the current fill of the Bloom filter
+     */
+    private final double estimatedFalsePositiveRate;
+
+    /**
+     * Memory held by the filter and the exact table, in bytes
+     */
+    private final long memoryBytes;
+
+    DeduplicationStats(long uniqueEvents, long duplicates, long probableDuplicates, long exactEvictions,
+                       double configuredFalsePositiveRate, double estimatedFalsePositiveRate, long memoryBytes) {
+        this.uniqueEvents = uniqueEvents;
+        this.duplicates = duplicates;
+        this.probableDuplicates = probableDuplicates;
+        this.exactEvictions = exactEvictions;
+        this.configuredFalsePositiveRate = configuredFalsePositiveRate;
+        this.estimatedFalsePositiveRate = estimatedFalsePositiveRate;
+        this.memoryBytes = memoryBytes;
+    }
+
+    /**
+     * Get the fraction of notifications recognised as (probable) duplicates.
+     *
+     * @return the duplicate rate between 0 and 1
+     */
+    public double getDuplicateRate() {
+        long total = uniqueEvents + duplicates + probableDuplicates;
+        return total == 0 ? 0 : (double) (duplicates + probableDuplicates) / total;
+    }
+}
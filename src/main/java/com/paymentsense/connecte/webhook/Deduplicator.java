@@ -0,0 +1,255 @@
+package com.paymentsense.connecte.webhook;
+
+import com.paymentsense.connecte.model.WebhookEvent;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Recognises redelivered webhook notifications in constant memory.
+ * <p>
+ * A notification is identified by a 64-bit hash of its payment ID, status code,
+ * cross-reference, transaction type and time. Lookups first consult an exact
+ * set-associative table of recent hashes; a hit there is a certain duplicate. Otherwise
+ * the hash is added to the current Bloom filter generation, and a hash the current or
+ * previous generation already contained is a probable duplicate. Generations rotate every
+ * window, so the filter's fill, and with it the false-positive rate, stays bounded.
+ * </p>
+ * <p>
+ * All operations are lock-free apart from the once-per-window rotation.
+ * </p>
+ */
+final class Deduplicator {
+    /**
+     * Outcome of a lookup.
+     */
+    enum Verdict {
+        NEW,
+        DUPLICATE,
+        PROBABLE_DUPLICATE
+    }
+
+    private static final int WAYS = 8;
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final DeduplicationConfig config;
+    private final LongSupplier clock;
+    private final long windowNanos;
+    private final long bits;
+    private final int hashFunctions;
+
+    private final AtomicLongArray recent;
+    private final int bucketMask;
+    private final ReentrantLock rotationLock = new ReentrantLock();
+    private volatile Generation current;
+    private volatile Generation previous;
+
+    private final LongAdder unique = new LongAdder();
+    private final LongAdder duplicates = new LongAdder();
+    private final LongAdder probableDuplicates = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    Deduplicator(DeduplicationConfig config) {
+        this(config, System::nanoTime);
+    }
+
+    Deduplicator(DeduplicationConfig config, LongSupplier clock) {
+        config.validate();
+        this.config = config;
+        this.clock = clock;
+        this.windowNanos = config.getWindow().toNanos();
+
+        // Optimal Bloom filter sizing: m = -n ln p / (ln 2)^2 bits, k = m / n ln 2 hashes
+        double n = config.getExpectedEventsPerWindow();
+        double m = -n * Math.log(config.getFalsePositiveRate()) / (Math.log(2) * Math.log(2));
+        this.bits = Math.max(64, ((long) Math.ceil(m) + 63) & ~63L);
+        this.hashFunctions = Math.max(1, (int) Math.round(bits / n * Math.log(2)));
+        if (bits / 64 > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("De-duplication filter would exceed the maximum array size");
+        }
+
+        int slots = Integer.highestOneBit(config.getExactCapacity() - 1) << 1;
+        this.recent = new AtomicLongArray(slots);
+        this.bucketMask = slots / WAYS - 1;
+        this.current = new Generation((int) (bits / 64), clock.getAsLong());
+    }
+
+    /**
+     * Record a notification and tell whether it was seen before.
+     *
+     * @param event the notification
+     * @return the verdict
+     */
+    Verdict check(WebhookEvent event) {
+        long h1 = hash(event);
+        long h2 = mix(h1 ^ FNV_PRIME) | 1;
+
+        if (!addRecent(h1 == 0 ? 1 : h1)) {
+            duplicates.increment();
+            return Verdict.DUPLICATE;
+        }
+
+        Generation generation = currentGeneration();
+        Generation older = previous;
+        boolean seen = generation.put(h1, h2) || (older != null && older.contains(h1, h2));
+        if (seen) {
+            probableDuplicates.increment();
+            return Verdict.PROBABLE_DUPLICATE;
+        }
+        unique.increment();
+        return Verdict.NEW;
+    }
+
+    DeduplicationStats stats() {
+        Generation older = previous;
+        double currentRate = current.falsePositiveRate();
+        double previousRate = older == null ? 0 : older.falsePositiveRate();
+        long memory = bits / 8 * (older == null ? 1 : 2) + (long) recent.length() * Long.BYTES;
+        return new DeduplicationStats(unique.sum(), duplicates.sum(), probableDuplicates.sum(), evictions.sum(),
+                config.getFalsePositiveRate(), 1 - (1 - currentRate) * (1 - previousRate), memory);
+    }
+
+    /**
+     * Insert a hash into the exact table unless it is already there.
+     *
+     * @return true if the hash was added, false if it was present
+     */
+    private boolean addRecent(long fingerprint) {
+        int base = (int) (mix(fingerprint) & bucketMask) * WAYS;
+        while (true) {
+            int empty = -1;
+            for (int i = base; i < base + WAYS; i++) {
+                long value = recent.get(i);
+                if (value == fingerprint) {
+                    return false;
+                }
+                if (value == 0 && empty < 0) {
+                    empty = i;
+                }
+            }
+            // Slots never return to empty, so two threads adding the same hash race for the
+            // same slot and the loser finds the winner's entry on its re-scan
+            if (empty >= 0) {
+                if (recent.compareAndSet(empty, 0, fingerprint)) {
+                    return true;
+                }
+                continue;
+            }
+            int victim = base + (int) (fingerprint >>> 61);
+            long old = recent.get(victim);
+            if (old != fingerprint && recent.compareAndSet(victim, old, fingerprint)) {
+                evictions.increment();
+                return true;
+            }
+        }
+    }
+
+    private Generation currentGeneration() {
+        Generation generation = current;
+        long now = clock.getAsLong();
+        if (now - generation.startNanos < windowNanos || !rotationLock.tryLock()) {
+            return generation;
+        }
+        try {
+            generation = current;
+            if (now - generation.startNanos >= windowNanos) {
+                // A generation older than two windows holds nothing worth remembering
+                previous = now - generation.startNanos < 2 * windowNanos ? generation : null;
+                generation = new Generation((int) (bits / 64), now);
+                current = generation;
+            }
+            return generation;
+        } finally {
+            rotationLock.unlock();
+        }
+    }
+
+    private static long hash(WebhookEvent event) {
+        long h = FNV_OFFSET;
+        h = hash(h, event.getId());
+        h = hash(h, event.getStatusCode() == null ? null : event.getStatusCode().toString());
+        h = hash(h, event.getCrossReference());
+        h = hash(h, event.getTransactionType());
+        h = hash(h, event.getTransactionDateTime());
+        return mix(h);
+    }
+
+    private static long hash(long h, String value) {
+        if (value != null) {
+            for (int i = 0; i < value.length(); i++) {
+                h = (h ^ value.charAt(i)) * FNV_PRIME;
+            }
+        }
+        // Field separator, so ("ab", "c") and ("a", "bc") differ
+        return (h ^ 0x1f) * FNV_PRIME;
+    }
+
+    /**
+     * MurmurHash3 finalizer; spreads FNV's weak high bits.
+     */
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    /**
+     * One window's Bloom filter.
+     */
+    private final class Generation {
+        private final AtomicLongArray words;
+        private final long startNanos;
+        private final LongAdder setBits = new LongAdder();
+
+        Generation(int wordCount, long startNanos) {
+            this.words = new AtomicLongArray(wordCount);
+            this.startNanos = startNanos;
+        }
+
+        /**
+         * Set the hash's bits.
+         *
+         * @return true if all of them were already set
+         */
+        boolean put(long h1, long h2) {
+            boolean present = true;
+            long combined = h1;
+            for (int i = 0; i < hashFunctions; i++, combined += h2) {
+                long bit = Long.remainderUnsigned(combined, bits);
+                int index = (int) (bit >>> 6);
+                long mask = 1L << bit;
+                long word = words.get(index);
+                while ((word & mask) == 0) {
+                    if (words.compareAndSet(index, word, word | mask)) {
+                        setBits.increment();
+                        present = false;
+                        break;
+                    }
+                    word = words.get(index);
+                }
+            }
+            return present;
+        }
+
+        double falsePositiveRate() {
+            return Math.pow((double) setBits.sum() / bits, hashFunctions);
+        }
+
+        boolean contains(long h1, long h2) {
+            long combined = h1;
+            for (int i = 0; i < hashFunctions; i++, combined += h2) {
+                long bit = Long.remainderUnsigned(combined, bits);
+                if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
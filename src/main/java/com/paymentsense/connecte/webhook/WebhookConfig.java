@@ -0,0 +1,106 @@
+package com.paymentsense.connecte.webhook;
+
+import com.paymentsense.connecte.model.WebhookEvent;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.Duration;
+import java.util.function.BiConsumer;
+
+/**
+ * Configuration for {@link WebhookProcessor}.
+ * <p>
+ * Payments are hashed onto {@link #lanes} ordered lanes, which {@link #workerThreads}
+ * threads drain in parallel. At most {@link #queueCapacity} events are queued or being
+ * handled at once; beyond that deliveries are refused with a retryable response.
+ * </p>
+ */
+@Data
+@Builder
+public class WebhookConfig {
+    /**
+     * Number of threads running handlers
+     */
+    @Builder.Default
+    private final int workerThreads = Math.max(2, Runtime.getRuntime().availableProcessors());
+
+    /**
+     * Number of ordered lanes payments are spread over (rounded up to a power of two)
+     */
+    @Builder.Default
+    private final int lanes = 256;
+
+    /**
+     * Maximum number of events queued or being handled
+     */
+    @Builder.Default
+    private final int queueCapacity = 10_000;
+
+    /**
+     * Maximum number of events a lane handles before yielding its thread to other lanes
+     */
+    @Builder.Default
+    private final int laneBatchSize = 32;
+
+    /**
+     * Largest accepted notification body, in bytes
+     */
+    @Builder.Default
+    private final int maxBodyBytes = 64 * 1024;
+
+    /**
+     * Delay suggested to Connect-E in the {@code Retry-After} header when overloaded
+     */
+    @Builder.Default
+    private final Duration retryAfter = Duration.ofSeconds(5);
+
+    /**
+     * How long {@link WebhookProcessor#close()} waits for queued events to be handled
+     */
+    @Builder.Default
+    private final Duration shutdownTimeout = Duration.ofSeconds(30);
+
+    /**
+     * Dropping of redelivered notifications; enabled by default
+     */
+    @Builder.Default
+    private final DeduplicationConfig deduplication = DeduplicationConfig.builder().build();
+
+    /**
+     * Called with the event and the failure when a handler throws (optional)
+     */
+    private final BiConsumer<WebhookEvent, Exception> errorHandler;
+
+    /**
+     * Validate the configuration.
+     *
+     * @throws IllegalArgumentException if the configuration is invalid
+     */
+    public void validate() {
+        if (workerThreads < 1) {
+            throw new IllegalArgumentException("Webhook worker threads must be at least 1");
+        }
+        if (lanes < 1 || lanes > (1 << 16)) {
+            throw new IllegalArgumentException("Webhook lanes must be between 1 and 65536");
+        }
+        if (queueCapacity < 1) {
+            throw new IllegalArgumentException("Webhook queue capacity must be at least 1");
+        }
+        if (laneBatchSize < 1) {
+            throw new IllegalArgumentException("Webhook lane batch size must be at least 1");
+        }
+        if (maxBodyBytes < 1) {
+            throw new IllegalArgumentException("Webhook max body size must be at least 1 byte");
+        }
+        if (retryAfter == null || retryAfter.isNegative()) {
+            throw new IllegalArgumentException("Webhook retry-after cannot be negative");
+        }
+        if (shutdownTimeout == null || shutdownTimeout.isNegative()) {
+            throw new IllegalArgumentException("Webhook shutdown timeout cannot be negative");
+        }
+        if (deduplication == null) {
+            throw new IllegalArgumentException("De-duplication configuration is required");
+        }
+        deduplication.validate();
+    }
+}
@@ -0,0 +1,23 @@
+package com.paymentsense.connecte.webhook;
+
+import com.paymentsense.connecte.model.WebhookEvent;
+
+/**
+ * Receives webhook notifications from a {@link WebhookProcessor}.
+ * <p>
+ * Events for the same payment are delivered one at a time, in the order they were
+ * received; events for different payments may be delivered concurrently, so
+ * implementations must be thread-safe.
+ * </p>
+ */
+@FunctionalInterface
+public interface WebhookHandler {
+    /**
+     * Handle a notification.
+     *
+     * @param event the parsed notification
+     * @throws Exception if handling fails; the failure is counted and reported to the
+     *                   configured error handler, and later events are still delivered
+     */
+    void onEvent(WebhookEvent event) throws Exception;
+}
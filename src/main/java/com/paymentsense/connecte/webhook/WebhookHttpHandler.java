@@ -0,0 +1,88 @@
+package com.paymentsense.connecte.webhook;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+/**
+ * Exposes a {@link WebhookProcessor} as a {@code com.sun.net.httpserver} endpoint.
+ * <p>
+ * Accepts {@code POST} only and answers with an empty body and the status of the
+ * {@link WebhookResult}, adding {@code Retry-After} when the processor is overloaded.
+ * The body is parsed on the server thread; handlers run on the processor's workers.
+ * </p>
+ * <pre>{@code
+ * HttpServer server = HttpServer.create(new InetSocketAddress(8080), 0);
+ * server.createContext("/webhook", new WebhookHttpHandler(processor));
+ * server.start();
+ * }</pre>
+ */
+public final class WebhookHttpHandler implements HttpHandler {
+    private final WebhookProcessor processor;
+    private final int maxBodyBytes;
+
+    /**
+     * Create a handler for the given processor.
+     *
+     * @param processor the processor to hand notifications to
+     * @param maxBodyBytes largest body read before answering 413
+     */
+    public WebhookHttpHandler(WebhookProcessor processor, int maxBodyBytes) {
+        this.processor = processor;
+        this.maxBodyBytes = maxBodyBytes;
+    }
+
+    /**
+     * Create a handler that reads bodies up to the processor's
+     * {@link WebhookConfig#getMaxBodyBytes() limit}.
+     *
+     * @param processor the processor to hand notifications to
+     */
+    public WebhookHttpHandler(WebhookProcessor processor) {
+        this(processor, processor.getMaxBodyBytes());
+    }
+
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+        try {
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                exchange.getResponseHeaders().set("Allow", "POST");
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+
+            byte[] body = readBody(exchange.getRequestBody());
+            WebhookResult result = body == null ? WebhookResult.TOO_LARGE : processor.handle(body);
+            if (result.isRetryable()) {
+                exchange.getResponseHeaders().set("Retry-After", Long.toString(processor.getRetryAfterSeconds()));
+            }
+            exchange.sendResponseHeaders(result.getStatusCode(), -1);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * Read the body, giving up as soon as it exceeds the limit.
+     *
+     * @return the body, or null if it is too large
+     */
+    private byte[] readBody(InputStream in) throws IOException {
+        byte[] buffer = new byte[Math.min(maxBodyBytes + 1, 8192)];
+        int length = 0;
+        int read;
+        while ((read = in.read(buffer, length, buffer.length - length)) != -1) {
+            length += read;
+            if (length > maxBodyBytes) {
+                return null;
+            }
+            if (length == buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.min(maxBodyBytes + 1, buffer.length * 2));
+            }
+        }
+        return length == buffer.length ? buffer : Arrays.copyOf(buffer, length);
+    }
+}
@@ -0,0 +1,366 @@
+package com.paymentsense.connecte.webhook;
+
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.paymentsense.connecte.model.WebhookEvent;
+import com.paymentsense.connecte.service.JsonCodec;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+
+/**
+ * Parses Connect-E webhook notifications and hands them to registered
+ * {@link WebhookHandler}s on a bounded worker pool.
+ * <p>
+ * Each payment ID hashes to one of a fixed number of lanes. A lane is drained by at most
+ * one worker at a time, so events for a payment are handled in arrival order, while
+ * different lanes run in parallel. Memory is fixed by the lane count and
+ * {@link WebhookConfig#getQueueCapacity()}: when that many events are waiting, new
+ * deliveries are answered with {@link WebhookResult#OVERLOADED} so that Connect-E
+ * retries them later instead of the backlog growing.
+ * </p>
+ * <p>
+ * Connect-E retries deliveries it is unsure about, so unless disabled in
+ * {@link WebhookConfig#getDeduplication()}, notifications already seen are acknowledged
+ * with {@link WebhookResult#DUPLICATE} and not passed to the handlers again.
+ * </p>
+ * <p>
+ * {@link #handle(byte[])} works with any HTTP stack; {@link WebhookHttpHandler} adapts it
+ * to {@code com.sun.net.httpserver}. In a servlet:
+ * </p>
+ * <pre>{@code
+ * WebhookResult result = processor.handle(request.getInputStream().readAllBytes());
+ * response.setStatus(result.getStatusCode());
+ * if (result.isRetryable()) {
+ *     response.setHeader("Retry-After", Long.toString(processor.getRetryAfterSeconds()));
+ * }
+ * }</pre>
+ */
+public final class WebhookProcessor implements AutoCloseable {
+    private final WebhookConfig config;
+    private final ObjectReader eventReader;
+    private final List<WebhookHandler> handlers = new CopyOnWriteArrayList<>();
+    private final Lane[] lanes;
+    private final int laneMask;
+    private final ThreadPoolExecutor workers;
+    private final Deduplicator deduplicator;
+    private final AtomicInteger pending = new AtomicInteger();
+    private volatile boolean closed;
+
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder malformed = new LongAdder();
+    private final LongAdder handled = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    /**
+     * Create a processor with its own Jackson codecs.
+     *
+     * @param config the processor configuration
+     * @throws IllegalArgumentException if the configuration is invalid
+     */
+    public WebhookProcessor(WebhookConfig config) {
+        this(config, new JsonCodec());
+    }
+
+    /**
+     * Create a processor that parses with the given codecs.
+     *
+     * @param config the processor configuration
+     * @param codec  the codecs to parse notifications with
+     * @throws IllegalArgumentException if the configuration is invalid
+     */
+    public WebhookProcessor(WebhookConfig config, JsonCodec codec) {
+        config.validate();
+        this.config = config;
+        this.eventReader = codec.getWebhookEventReader();
+
+        int laneCount = config.getLanes() == 1 ? 1 : Integer.highestOneBit(config.getLanes() - 1) << 1;
+        this.lanes = new Lane[laneCount];
+        for (int i = 0; i < laneCount; i++) {
+            lanes[i] = new Lane();
+        }
+        this.laneMask = laneCount - 1;
+        this.deduplicator = config.getDeduplication().isEnabled() ? new Deduplicator(config.getDeduplication()) : null;
+
+        // At most one task per lane is ever queued, so the queue is bounded by the lane count
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(config.getWorkerThreads(), config.getWorkerThreads(),
+                0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "paymentsense-webhook-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Register a handler for every event. Handlers are called in registration order.
+     *
+     * @param handler the handler
+     * @return this processor
+     */
+    public WebhookProcessor addHandler(WebhookHandler handler) {
+        handlers.add(Objects.requireNonNull(handler, "handler"));
+        return this;
+    }
+
+    /**
+     * Unregister a handler.
+     *
+     * @param handler the handler
+     * @return true if the handler was registered
+     */
+    public boolean removeHandler(WebhookHandler handler) {
+        return handlers.remove(handler);
+    }
+
+    /**
+     * Parse a notification body and queue it for the handlers.
+     *
+     * @param body the raw request body
+     * @return the outcome, including the HTTP status to answer with
+     */
+    public WebhookResult handle(byte[] body) {
+        if (body == null || body.length == 0) {
+            malformed.increment();
+            return WebhookResult.MALFORMED;
+        }
+        if (body.length > config.getMaxBodyBytes()) {
+            malformed.increment();
+            return WebhookResult.TOO_LARGE;
+        }
+
+        WebhookEvent event;
+        try {
+            event = eventReader.readValue(body);
+        } catch (IOException e) {
+            malformed.increment();
+            return WebhookResult.MALFORMED;
+        }
+        return submit(event);
+    }
+
+    /**
+     * Queue an already parsed event for the handlers.
+     *
+     * @param event the event
+     * @return {@link WebhookResult#ACCEPTED}, {@link WebhookResult#DUPLICATE} if the event
+     * was seen before, {@link WebhookResult#MALFORMED} if it has no payment ID, or
+     * {@link WebhookResult#OVERLOADED} if the queue is full
+     */
+    public WebhookResult submit(WebhookEvent event) {
+        if (event == null || event.getId() == null || event.getId().isEmpty()) {
+            malformed.increment();
+            return WebhookResult.MALFORMED;
+        }
+        if (closed) {
+            rejected.increment();
+            return WebhookResult.OVERLOADED;
+        }
+        if (pending.incrementAndGet() > config.getQueueCapacity()) {
+            pending.decrementAndGet();
+            rejected.increment();
+            return WebhookResult.OVERLOADED;
+        }
+        // Only after a queue slot is reserved: a refused event must not be remembered, or
+        // its redelivery would be dropped as a duplicate
+        if (deduplicator != null && isDuplicate(deduplicator.check(event))) {
+            pending.decrementAndGet();
+            return WebhookResult.DUPLICATE;
+        }
+
+        accepted.increment();
+        lanes[spread(event.getId().hashCode()) & laneMask].enqueue(event);
+        return WebhookResult.ACCEPTED;
+    }
+
+    /**
+     * Get a snapshot of the de-duplication counters.
+     *
+     * @return unique and duplicate counts and false-positive rates, or {@code null} if
+     * de-duplication is disabled
+     */
+    public DeduplicationStats getDeduplicationStats() {
+        return deduplicator == null ? null : deduplicator.stats();
+    }
+
+    /**
+     * Get the largest notification body the processor accepts.
+     *
+     * @return the body limit in bytes
+     */
+    public int getMaxBodyBytes() {
+        return config.getMaxBodyBytes();
+    }
+
+    /**
+     * Get the {@code Retry-After} value to send with {@link WebhookResult#OVERLOADED}.
+     *
+     * @return the suggested retry delay in whole seconds
+     */
+    public long getRetryAfterSeconds() {
+        return (config.getRetryAfter().toMillis() + 999) / 1000;
+    }
+
+    /**
+     * Get the number of events queued or being handled.
+     *
+     * @return the pending event count
+     */
+    public int getPendingCount() {
+        return pending.get();
+    }
+
+    /**
+     * Get the number of events accepted for handling.
+     *
+     * @return the accepted count
+     */
+    public long getAcceptedCount() {
+        return accepted.sum();
+    }
+
+    /**
+     * Get the number of deliveries refused because the queue was full or the processor closed.
+     *
+     * @return the rejected count
+     */
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    /**
+     * Get the number of deliveries that were empty, too large or not a notification.
+     *
+     * @return the malformed count
+     */
+    public long getMalformedCount() {
+        return malformed.sum();
+    }
+
+    /**
+     * Get the number of events passed to every handler.
+     *
+     * @return the handled count
+     */
+    public long getHandledCount() {
+        return handled.sum();
+    }
+
+    /**
+     * Get the number of handler calls that threw.
+     *
+     * @return the failure count
+     */
+    public long getFailedCount() {
+        return failed.sum();
+    }
+
+    /**
+     * Refuse new events, then wait up to the configured shutdown timeout for queued
+     * events to be handled before interrupting the workers.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        workers.shutdown();
+        try {
+            if (!workers.awaitTermination(config.getShutdownTimeout().toNanos(), TimeUnit.NANOSECONDS)) {
+                workers.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            workers.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private boolean isDuplicate(Deduplicator.Verdict verdict) {
+        return verdict == Deduplicator.Verdict.DUPLICATE
+                || (verdict == Deduplicator.Verdict.PROBABLE_DUPLICATE
+                && config.getDeduplication().isDropProbableDuplicates());
+    }
+
+    private void dispatch(WebhookEvent event) {
+        try {
+            for (WebhookHandler handler : handlers) {
+                try {
+                    handler.onEvent(event);
+                } catch (Exception e) {
+                    failed.increment();
+                    BiConsumer<WebhookEvent, Exception> errorHandler = config.getErrorHandler();
+                    if (errorHandler != null) {
+                        errorHandler.accept(event, e);
+                    }
+                }
+            }
+            handled.increment();
+        } finally {
+            pending.decrementAndGet();
+        }
+    }
+
+    /**
+     * Spread hash bits so payment IDs differing only in their last characters land in
+     * different lanes.
+     */
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * Ordered queue of events for the payments hashing to it. The {@code scheduled} flag
+     * ensures at most one worker drains the lane at a time.
+     */
+    private final class Lane implements Runnable {
+        private final ConcurrentLinkedQueue<WebhookEvent> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        void enqueue(WebhookEvent event) {
+            queue.offer(event);
+            if (scheduled.compareAndSet(false, true)) {
+                try {
+                    workers.execute(this);
+                } catch (RejectedExecutionException e) {
+                    // Closed concurrently: hand the lane's events over on this thread
+                    run();
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            while (true) {
+                try {
+                    WebhookEvent event;
+                    for (int i = 0; i < config.getLaneBatchSize() && (event = queue.poll()) != null; i++) {
+                        dispatch(event);
+                    }
+                } finally {
+                    scheduled.set(false);
+                }
+
+                // Re-check after clearing the flag so an event offered meanwhile is not stranded
+                if (queue.isEmpty() || !scheduled.compareAndSet(false, true)) {
+                    return;
+                }
+                try {
+                    // Yield the thread so one busy lane cannot starve the others
+                    workers.execute(this);
+                    return;
+                } catch (RejectedExecutionException e) {
+                    // Shutting down: keep draining on this thread
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.paymentsense.connecte.webhook;
+
+import lombok.Getter;
+
+/**
+ * Outcome of offering a notification to a {@link WebhookProcessor}, with the HTTP status
+ * to answer Connect-E with.
+ */
+@Getter
+public enum WebhookResult {
+    /**
+     * The event was queued for its handlers
+     */
+    ACCEPTED(200),
+
+    /**
+     * The event was delivered before and is acknowledged without calling the handlers
+     */
+    DUPLICATE(200),
+
+    /**
+     * The body is not a notification; redelivering it will not help
+     */
+    MALFORMED(400),
+
+    /**
+     * The body exceeds the configured maximum size
+     */
+    TOO_LARGE(413),
+
+    /**
+     * Handlers are behind (or the processor is closed); Connect-E should retry later
+     */
+    OVERLOADED(503);
+
+    private final int statusCode;
+
+    WebhookResult(int statusCode) {
+        this.statusCode = statusCode;
+    }
+
+    /**
+     * Check if the sender should retry the delivery.
+     *
+     * @return true if the delivery was refused only temporarily
+     */
+    public boolean isRetryable() {
+        return this == OVERLOADED;
+    }
+}
@@ -0,0 +1,35 @@
+package com.paymentsense.connecte.config;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Access to virtual threads from code compiled for Java 11.
+ * <p>
+ * This is the Java 21 variant, packaged under {@code META-INF/versions/21} of the
+ * multi-release jar.
+ * </p>
+ */
+public final class VirtualThreads {
+    private VirtualThreads() {
+    }
+
+    /**
+     * Check whether virtual threads are available.
+     *
+     * @return true on this Java version
+     */
+    public static boolean isSupported() {
+        return true;
+    }
+
+    /**
+     * Create an executor starting a new virtual thread for each task.
+     *
+     * @param namePrefix the thread name prefix; threads are numbered from 0
+     * @return the executor
+     */
+    public static ExecutorService newThreadPerTaskExecutor(String namePrefix) {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(namePrefix, 0).factory());
+    }
+}